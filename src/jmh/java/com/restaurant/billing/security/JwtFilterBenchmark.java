@@ -0,0 +1,113 @@
+package com.restaurant.billing.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.restaurant.billing.service.AccessRevocationRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in {@link JwtAuthenticationFilter}.
+ * {@code legacy} repeats what the filter used to do: four full parses of the token,
+ * each rebuilding the HMAC key. The filter runs with the verified-token cache warm
+ * (a device repeating its token) and emptied before every request (every token new).
+ * The user row lookup the legacy filter also made is left out, since it needs a database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "h0n/4BCc6vcZVXeCKZ/Kwo4+9lMCpdyUY3UuXW0HKX4=";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private String header;
+    private JwtAuthenticationFilter filter;
+    private Cache<?, ?> verifiedTokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", TimeUnit.MINUTES.toMillis(15));
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", 10_000L);
+        jwtUtil.init();
+        verifiedTokens = (Cache<?, ?>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokens");
+
+        String token = jwtUtil.generateAccessToken(UUID.randomUUID(), "owner@example.com", UUID.randomUUID(),
+                "OWNER", new TokenEntitlements(new long[] {0b1011L}, 1L));
+        header = "Bearer " + token;
+
+        // Stateless principal, so the user details service is never called; no account is revoked
+        filter = new JwtAuthenticationFilter(jwtUtil, null, new AccessRevocationRegistry(null, null));
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+    }
+
+    @Benchmark
+    public Object legacy() {
+        String jwt = request().getHeader("Authorization").substring(7);
+        // isTokenValid, isTokenExpired, extractEmail and extractTenantId each parsed the token
+        parse(jwt);
+        if (parse(jwt).getExpiration().before(new Date())) {
+            return null;
+        }
+        String email = parse(jwt).getSubject();
+        TenantContext.setTenantId(UUID.fromString(parse(jwt).get("tenantId", String.class)));
+        TenantContext.clear();
+        return email;
+    }
+
+    @Benchmark
+    public Object filterWarmCache() throws Exception {
+        return run();
+    }
+
+    @Benchmark
+    public Object filterColdCache() throws Exception {
+        // Every request verifies the signature, as for a token seen for the first time
+        verifiedTokens.invalidateAll();
+        return run();
+    }
+
+    private Object run() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private MockHttpServletRequest request() {
+        // A fresh request each time; OncePerRequestFilter skips requests it has already seen
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", header);
+        return request;
+    }
+
+    private static Claims parse(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+}
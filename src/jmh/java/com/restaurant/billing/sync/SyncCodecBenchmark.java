@@ -0,0 +1,148 @@
+package com.restaurant.billing.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.restaurant.billing.dto.sync.ChangeDto;
+import com.restaurant.billing.dto.sync.DeltaSyncResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of a 5,000-change delta catch-up in each sync encoding,
+ * with and without gzip framing. Mappers are configured as in {@code WebConfig}.
+ * Payload sizes are printed once per trial, since JMH itself only reports time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SyncCodecBenchmark {
+
+    private static final int CHANGES = 5_000;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper mapper;
+    private DeltaSyncResponse response;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        response = catchUp();
+        encoded = encode();
+        System.out.printf("%n%s%s: %,d bytes for %,d changes%n",
+                format, gzip ? "+gzip" : "", encoded.length, CHANGES);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!gzip) {
+            return mapper.writeValueAsBytes(response);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            mapper.writeValue(gzipOut, response);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public DeltaSyncResponse decode() throws IOException {
+        InputStream in = new ByteArrayInputStream(encoded);
+        if (gzip) {
+            in = new GZIPInputStream(in);
+        }
+        return mapper.readValue(in, DeltaSyncResponse.class);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        return switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor()
+                    .factory(CBORFactory.builder().enable(CBORGenerator.Feature.STRINGREF).build())
+                    .build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile()
+                    .factory(SmileFactory.builder()
+                            .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                            .build())
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+    }
+
+    /**
+     * A mix resembling a device catching up after a day offline: mostly order updates
+     * with some menu item changes, all for one tenant.
+     */
+    private static DeltaSyncResponse catchUp() {
+        Random random = new Random(42);
+        String[] statuses = {"PENDING", "CONFIRMED", "PREPARING", "READY", "SERVED", "COMPLETED"};
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<ChangeDto> changes = new ArrayList<>(CHANGES);
+        for (int i = 0; i < CHANGES; i++) {
+            UUID id = UUID.randomUUID();
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("id", id.toString());
+            String entityType;
+            if (i % 5 == 0) {
+                entityType = "MENU_ITEM";
+                payload.put("name", "Item " + random.nextInt(200));
+                payload.put("price", BigDecimal.valueOf(50 + random.nextInt(500)));
+                payload.put("isAvailable", random.nextBoolean());
+                payload.put("isDeleted", false);
+            } else {
+                entityType = "ORDER";
+                payload.put("orderNumber", "ORD-" + (100000 + i));
+                payload.put("totalAmount", BigDecimal.valueOf(random.nextInt(500_000), 2));
+                payload.put("status", statuses[random.nextInt(statuses.length)]);
+            }
+            changes.add(ChangeDto.builder()
+                    .entityType(entityType)
+                    .entityId(id)
+                    .operation(i % 7 == 0 ? "CREATE" : "UPDATE")
+                    .timestamp(start.plusSeconds(i * 17L))
+                    .version((long) (1 + random.nextInt(5)))
+                    .sequence((long) i + 1)
+                    .payload(payload)
+                    .build());
+        }
+        return DeltaSyncResponse.builder()
+                .changes(changes)
+                .timestamp(start.plusDays(1))
+                .hasMore(false)
+                .nextCursor(String.valueOf(CHANGES))
+                .build();
+    }
+}
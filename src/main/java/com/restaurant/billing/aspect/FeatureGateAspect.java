@@ -2,8 +2,10 @@ package com.restaurant.billing.aspect;
 
 import com.restaurant.billing.annotation.FeatureGate;
 import com.restaurant.billing.exception.FeatureNotEnabledException;
+import com.restaurant.billing.exception.UnauthorizedException;
 import com.restaurant.billing.security.TenantContext;
-import com.restaurant.billing.service.FeatureService;
+import com.restaurant.billing.security.TokenEntitlements;
+import com.restaurant.billing.service.EntitlementRegistry;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
@@ -17,7 +19,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class FeatureGateAspect {
 
-    private final FeatureService featureService;
+    private final EntitlementRegistry entitlementRegistry;
 
     @Around("@annotation(featureGate)")
     public Object checkFeatureAccess(ProceedingJoinPoint joinPoint, FeatureGate featureGate)
@@ -25,7 +27,21 @@ public class FeatureGateAspect {
         UUID tenantId = TenantContext.getTenantId();
         String featureCode = featureGate.value();
 
-        if (!featureService.isFeatureEnabled(tenantId, featureCode)) {
+        int bit = entitlementRegistry.bitOf(featureCode);
+
+        boolean enabled;
+        TokenEntitlements granted = TenantContext.getEntitlements();
+        if (granted != null) {
+            // Authorize from the token; the server only vouches that its entitlements are current
+            if (granted.getVersion() < entitlementRegistry.currentVersion(tenantId)) {
+                throw new UnauthorizedException("Subscription features have changed. Please refresh your access token.");
+            }
+            enabled = granted.has(bit);
+        } else {
+            enabled = entitlementRegistry.isEnabled(tenantId, bit);
+        }
+
+        if (!enabled) {
             throw new FeatureNotEnabledException(
                     "Feature '" + featureCode + "' is not enabled for this restaurant. " +
                             "Please upgrade your subscription to access this feature."
@@ -0,0 +1,120 @@
+package com.restaurant.billing.config;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Menu reads are served from a per-node Caffeine cache backed, when
+ * {@code app.cache.redis.enabled} is set, by Redis shared across nodes. Keys come from
+ * {@link TenantAwareCacheKeyGenerator}, so every cached method must return tenant-wide data.
+ * Puts and evictions issued inside a transaction are applied after it commits.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String MENU_ITEMS = "menu-items";
+    public static final String CATEGORIES = "categories";
+    public static final String MENU_SNAPSHOTS = "menu-snapshots";
+
+    private static final String EVICTION_CHANNEL = "cache-evictions";
+
+    @Value("${app.cache.local.max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${app.cache.local.ttl-seconds:300}")
+    private long localTtlSeconds;
+
+    @Value("${app.cache.redis.enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${spring.cache.redis.time-to-live:600000}")
+    private long redisTtlMs;
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(ObjectProvider<RedisConnectionFactory> connectionFactory,
+                                             ObjectMapper objectMapper) {
+        RedisCacheManager shared = null;
+        StringRedisTemplate redisTemplate = null;
+        if (redisEnabled) {
+            shared = RedisCacheManager.builder(connectionFactory.getObject())
+                    .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                            .entryTtl(Duration.ofMillis(redisTtlMs))
+                            .disableCachingNullValues()
+                            .serializeValuesWith(RedisSerializationContext.SerializationPair
+                                    .fromSerializer(redisSerializer(objectMapper))))
+                    .build();
+            shared.afterPropertiesSet();
+            redisTemplate = new StringRedisTemplate(connectionFactory.getObject());
+        }
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                List.of(MENU_ITEMS, CATEGORIES, MENU_SNAPSHOTS), localMaxSize, Duration.ofSeconds(localTtlSeconds),
+                shared, redisTemplate, EVICTION_CHANNEL);
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(TwoLevelCacheManager cacheManager) {
+        return registry -> {
+            for (String name : List.of(MENU_ITEMS, CATEGORIES, MENU_SNAPSHOTS)) {
+                TwoLevelCache cache = cacheManager.getTwoLevelCache(name);
+                CaffeineCacheMetrics.monitor(registry, cache.getNativeCache(), name);
+                if (cache.hasSharedStore()) {
+                    FunctionCounter.builder("cache.shared.gets", cache, TwoLevelCache::getSharedHits)
+                            .tags("cache", name, "result", "hit")
+                            .register(registry);
+                    FunctionCounter.builder("cache.shared.gets", cache, TwoLevelCache::getSharedMisses)
+                            .tags("cache", name, "result", "miss")
+                            .register(registry);
+                }
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheEvictionListener(RedisConnectionFactory connectionFactory,
+                                                               TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                        cacheManager.onRemoteEviction(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(EVICTION_CHANNEL));
+        return container;
+    }
+
+    private GenericJackson2JsonRedisSerializer redisSerializer(ObjectMapper objectMapper) {
+        // Type ids come from Redis, so only the classes cached values are built from may be named
+        PolymorphicTypeValidator allowedTypes = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.restaurant.billing.dto.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.math.")
+                .build();
+        ObjectMapper mapper = objectMapper.copy();
+        mapper.activateDefaultTyping(allowedTypes, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
+}
@@ -0,0 +1,198 @@
+package com.restaurant.billing.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Inflates request bodies sent with {@code Content-Encoding: gzip}, so devices on slow
+ * links can compress sync pushes. The inflated size is capped to guard against
+ * decompression bombs. Non-blocking reads are supported by buffering the compressed
+ * body first, since inflating a partial body could block the container thread.
+ */
+@Component
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    @Value("${app.sync.max-inflated-request-bytes:52428800}")
+    private long maxInflatedBytes;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        return encoding == null || !GZIP.equalsIgnoreCase(encoding.trim());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(new InflatingRequest(request, maxInflatedBytes), response);
+    }
+
+    private static class InflatingRequest extends HttpServletRequestWrapper {
+
+        private final long maxBytes;
+
+        private InflatingRequest(HttpServletRequest request, long maxBytes) {
+            super(request);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            return new InflatingInputStream(super.getInputStream(), maxBytes);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isStrippedHeader(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isStrippedHeader(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1L;
+        }
+
+        private boolean isStrippedHeader(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+                    || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    private static class InflatingInputStream extends ServletInputStream {
+
+        private final ServletInputStream compressed;
+        private final long maxBytes;
+        private InputStream delegate;
+        private long read;
+        private boolean finished;
+        private volatile boolean buffering;
+
+        private InflatingInputStream(ServletInputStream compressed, long maxBytes) {
+            this.compressed = compressed;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate().read();
+            track(b < 0 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = delegate().read(buffer, off, len);
+            track(n);
+            return n;
+        }
+
+        private InputStream delegate() throws IOException {
+            if (buffering) {
+                throw new IllegalStateException("Request body is not ready; wait for onDataAvailable");
+            }
+            if (delegate == null) {
+                // Reads the gzip header, so deferred until the first read
+                delegate = new GZIPInputStream(compressed);
+            }
+            return delegate;
+        }
+
+        private void track(int n) throws IOException {
+            if (n < 0) {
+                finished = true;
+                return;
+            }
+            read += n;
+            if (read > maxBytes) {
+                throw new IOException("Inflated request body exceeds " + maxBytes + " bytes");
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return !buffering;
+        }
+
+        /**
+         * Collects the compressed body as the container makes it available, then inflates
+         * it from memory and hands it to {@code listener}, so no read ever waits on the
+         * network. The compressed size is capped like the inflated size.
+         */
+        @Override
+        public void setReadListener(ReadListener listener) {
+            buffering = true;
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            compressed.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] chunk = new byte[8192];
+                    while (compressed.isReady()) {
+                        int n = compressed.read(chunk);
+                        if (n < 0) {
+                            return;
+                        }
+                        body.write(chunk, 0, n);
+                        if (body.size() > maxBytes) {
+                            throw new IOException("Request body exceeds " + maxBytes + " bytes");
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    delegate = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()));
+                    buffering = false;
+                    listener.onDataAvailable();
+                    listener.onAllDataRead();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    listener.onError(t);
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+            } else {
+                compressed.close();
+            }
+        }
+    }
+}
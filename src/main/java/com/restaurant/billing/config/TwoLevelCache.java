@@ -0,0 +1,138 @@
+package com.restaurant.billing.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * A Caffeine cache in front of an optional shared cache. Reads try the local copy
+ * first and fill it from the shared store; writes and evictions go to both, and
+ * evictions are broadcast so other nodes drop their local copies too.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    static final Object CLEAR_ALL = new Object();
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final org.springframework.cache.Cache shared;
+    private final BiConsumer<String, Object> evictionBroadcaster;
+
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder sharedMisses = new LongAdder();
+
+    public TwoLevelCache(String name, Cache<Object, Object> local, org.springframework.cache.Cache shared,
+                         BiConsumer<String, Object> evictionBroadcaster) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.evictionBroadcaster = evictionBroadcaster;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<Object, Object> getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null || shared == null) {
+            return value;
+        }
+        Object sharedValue = lookupShared(key);
+        if (sharedValue != null) {
+            local.put(key, sharedValue);
+        }
+        return sharedValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Caffeine runs the loader at most once per key, so a cold key hits the database once
+        return (T) fromStoreValue(local.get(key, k -> {
+            Object sharedValue = shared != null ? lookupShared(k) : null;
+            if (sharedValue != null) {
+                return sharedValue;
+            }
+            try {
+                T loaded = valueLoader.call();
+                if (shared != null) {
+                    shared.put(k, loaded);
+                }
+                return toStoreValue(loaded);
+            } catch (Exception e) {
+                throw new ValueRetrievalException(k, valueLoader, e);
+            }
+        }));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        local.put(key, toStoreValue(value));
+        if (shared != null) {
+            shared.put(key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        if (shared != null) {
+            shared.evict(key);
+        }
+        evictionBroadcaster.accept(name, key);
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (shared != null) {
+            shared.clear();
+        }
+        evictionBroadcaster.accept(name, CLEAR_ALL);
+    }
+
+    /**
+     * Drops the local copy only, in response to an eviction on another node.
+     */
+    void evictLocal(Object key) {
+        if (key == CLEAR_ALL) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    boolean hasSharedStore() {
+        return shared != null;
+    }
+
+    long getSharedHits() {
+        return sharedHits.sum();
+    }
+
+    long getSharedMisses() {
+        return sharedMisses.sum();
+    }
+
+    private Object lookupShared(Object key) {
+        ValueWrapper wrapper = shared.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            sharedMisses.increment();
+            return null;
+        }
+        sharedHits.increment();
+        return wrapper.get();
+    }
+}
@@ -0,0 +1,101 @@
+package com.restaurant.billing.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Builds {@link TwoLevelCache}s over an optional shared {@link CacheManager} and relays
+ * evictions between nodes over a Redis channel when one is configured.
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private static final String CLEAR_ALL_KEY = "*";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final List<String> cacheNames;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final CacheManager shared;
+    private final StringRedisTemplate redisTemplate;
+    private final String evictionChannel;
+
+    public TwoLevelCacheManager(List<String> cacheNames, long localMaxSize, Duration localTtl,
+                                CacheManager shared, StringRedisTemplate redisTemplate, String evictionChannel) {
+        this.cacheNames = cacheNames;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.shared = shared;
+        this.redisTemplate = redisTemplate;
+        this.evictionChannel = evictionChannel;
+    }
+
+    /**
+     * The undecorated cache, for metrics; {@link #getCache} returns the transaction-aware wrapper.
+     */
+    public TwoLevelCache getTwoLevelCache(String name) {
+        getCache(name);
+        return caches.get(name);
+    }
+
+    public void onRemoteEviction(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(CLEAR_ALL_KEY.equals(parts[2]) ? TwoLevelCache.CLEAR_ALL : parts[2]);
+        }
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return cacheNames.stream().map(this::createCache).toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> new TwoLevelCache(cacheName,
+                Caffeine.newBuilder()
+                        .maximumSize(localMaxSize)
+                        .expireAfterWrite(localTtl)
+                        .recordStats()
+                        .build(),
+                shared != null ? shared.getCache(cacheName) : null,
+                broadcaster()));
+    }
+
+    private BiConsumer<String, Object> broadcaster() {
+        if (redisTemplate == null) {
+            return (name, key) -> { };
+        }
+        return (name, key) -> {
+            String target = key == TwoLevelCache.CLEAR_ALL ? CLEAR_ALL_KEY : key.toString();
+            try {
+                redisTemplate.convertAndSend(evictionChannel, nodeId + "|" + name + "|" + target);
+            } catch (Exception e) {
+                // Other nodes fall back to the local TTL
+                log.warn("Failed to broadcast eviction of {} from cache {}: {}", target, name, e.getMessage());
+            }
+        };
+    }
+}
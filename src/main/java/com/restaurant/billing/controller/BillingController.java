@@ -1,13 +1,16 @@
 package com.restaurant.billing.controller;
 
 import com.restaurant.billing.dto.billing.*;
+import com.restaurant.billing.security.TenantContext;
 import com.restaurant.billing.service.BillingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.UUID;
 
@@ -28,6 +31,13 @@ public class BillingController {
         return ResponseEntity.ok(billingService.getBillById(id));
     }
 
+    @GetMapping("/orders/{orderId}/status")
+    public DeferredResult<BillStatusDto> getBillStatus(
+            @PathVariable UUID orderId,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        return billingService.awaitBillStatus(TenantContext.getTenantId(), orderId, waitMs);
+    }
+
     @GetMapping("/{id}/download")
     public ResponseEntity<Resource> downloadInvoice(@PathVariable UUID id) {
         Resource resource = billingService.generateInvoicePdf(id);
@@ -45,4 +55,10 @@ public class BillingController {
             @RequestBody PaymentRequest request) {
         return ResponseEntity.ok(billingService.recordPayment(id, request));
     }
+
+    @PostMapping("/{id}/refund")
+    @PreAuthorize("hasAnyRole('OWNER', 'MANAGER')")
+    public ResponseEntity<BillDto> refundBill(@PathVariable UUID id) {
+        return ResponseEntity.ok(billingService.refundBill(id));
+    }
 }
\ No newline at end of file
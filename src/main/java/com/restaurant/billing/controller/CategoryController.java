@@ -10,8 +10,6 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -28,27 +26,23 @@ public class CategoryController {
     @GetMapping
     @Operation(summary = "Get all categories for tenant")
     public ResponseEntity<List<CategoryDto>> getAllCategories(
-            @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam(required = false, defaultValue = "true") Boolean activeOnly) {
-        List<CategoryDto> categories = categoryService.getAllCategories(userDetails.getUsername(), activeOnly);
+        List<CategoryDto> categories = categoryService.getAllCategories(activeOnly);
         return ResponseEntity.ok(categories);
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get category by ID")
-    public ResponseEntity<CategoryDto> getCategoryById(
-            @PathVariable UUID id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        CategoryDto category = categoryService.getCategoryById(id, userDetails.getUsername());
+    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable UUID id) {
+        CategoryDto category = categoryService.getCategoryById(id);
         return ResponseEntity.ok(category);
     }
 
     @PostMapping
     @Operation(summary = "Create new category")
     public ResponseEntity<CategoryDto> createCategory(
-            @Valid @RequestBody CreateCategoryRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        CategoryDto category = categoryService.createCategory(request, userDetails.getUsername());
+            @Valid @RequestBody CreateCategoryRequest request) {
+        CategoryDto category = categoryService.createCategory(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(category);
     }
 
@@ -56,18 +50,15 @@ public class CategoryController {
     @Operation(summary = "Update existing category")
     public ResponseEntity<CategoryDto> updateCategory(
             @PathVariable UUID id,
-            @Valid @RequestBody UpdateCategoryRequest request,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        CategoryDto category = categoryService.updateCategory(id, request, userDetails.getUsername());
+            @Valid @RequestBody UpdateCategoryRequest request) {
+        CategoryDto category = categoryService.updateCategory(id, request);
         return ResponseEntity.ok(category);
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete category (soft delete)")
-    public ResponseEntity<Void> deleteCategory(
-            @PathVariable UUID id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        categoryService.deleteCategory(id, userDetails.getUsername());
+    public ResponseEntity<Void> deleteCategory(@PathVariable UUID id) {
+        categoryService.deleteCategory(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -75,9 +66,8 @@ public class CategoryController {
     @Operation(summary = "Update category display order")
     public ResponseEntity<CategoryDto> updateDisplayOrder(
             @PathVariable UUID id,
-            @RequestParam Integer displayOrder,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        CategoryDto category = categoryService.updateDisplayOrder(id, displayOrder, userDetails.getUsername());
+            @RequestParam Integer displayOrder) {
+        CategoryDto category = categoryService.updateDisplayOrder(id, displayOrder);
         return ResponseEntity.ok(category);
     }
 }
@@ -1,9 +1,13 @@
 package com.restaurant.billing.controller;
 
+import com.restaurant.billing.security.TenantContext;
 import com.restaurant.billing.service.DashboardService;
+import com.restaurant.billing.service.DashboardStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -13,12 +17,18 @@ import java.util.Map;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardStreamService dashboardStreamService;
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         return ResponseEntity.ok(dashboardService.getDashboardStats());
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboard() {
+        return dashboardStreamService.subscribe(TenantContext.getTenantId());
+    }
+
     @GetMapping("/today-sales")
     public ResponseEntity<Map<String, Object>> getTodaySales() {
         return ResponseEntity.ok(dashboardService.getTodaySales());
@@ -3,8 +3,11 @@ package com.restaurant.billing.controller;
 import com.restaurant.billing.dto.menu.*;
 import com.restaurant.billing.security.TenantContext;
 import com.restaurant.billing.service.MenuService;
+import com.restaurant.billing.service.MenuSnapshotService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +21,7 @@ import java.util.UUID;
 public class MenuController {
 
     private final MenuService menuService;
+    private final MenuSnapshotService menuSnapshotService;
 
     @GetMapping
     public ResponseEntity<List<MenuItemDto>> getAllMenuItems() {
@@ -25,6 +29,36 @@ public class MenuController {
         return ResponseEntity.ok(menuService.getAllMenuItems(tenantId));
     }
 
+    /**
+     * Categories and items in one pre-compressed document. Clients send the last ETag
+     * back in If-None-Match and get a 304 until the menu changes.
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> getMenuSnapshot(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        MenuSnapshot snapshot = menuSnapshotService.getSnapshot(TenantContext.getTenantId());
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String etag = gzip ? snapshot.getGzipEtag() : snapshot.getEtag();
+
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? snapshot.getGzip() : snapshot.getJson());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<MenuItemDto> getMenuItemById(@PathVariable UUID id) {
         return ResponseEntity.ok(menuService.getMenuItemById(id));
@@ -1,14 +1,22 @@
 package com.restaurant.billing.controller;
 
+import com.restaurant.billing.security.TenantContext;
+import com.restaurant.billing.service.ExportService;
 import com.restaurant.billing.service.ReportService;
+import com.restaurant.billing.util.ExportWriter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -16,6 +24,7 @@ import java.util.Map;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ExportService exportService;
 
     @GetMapping("/product-wise")
     public ResponseEntity<List<Map<String, Object>>> getProductWiseSales(
@@ -30,4 +39,45 @@ public class ReportController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         return ResponseEntity.ok(reportService.getDayWiseSales(startDate, endDate));
     }
+
+    @GetMapping("/product-wise/export")
+    public ResponseEntity<StreamingResponseBody> exportProductWiseSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String format) {
+        ExportService.validateRange(startDate, endDate);
+        UUID tenantId = TenantContext.getTenantId();
+        ExportWriter.Format exportFormat = ExportWriter.Format.parse(format);
+        return export("product-wise-sales", exportFormat, out ->
+                exportService.writeProductWiseSales(tenantId, startDate, endDate, exportFormat, out));
+    }
+
+    @GetMapping("/day-wise/export")
+    public ResponseEntity<StreamingResponseBody> exportDayWiseSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String format) {
+        ExportService.validateRange(startDate, endDate);
+        UUID tenantId = TenantContext.getTenantId();
+        ExportWriter.Format exportFormat = ExportWriter.Format.parse(format);
+        return export("day-wise-sales", exportFormat, out ->
+                exportService.writeDayWiseSales(tenantId, startDate, endDate, exportFormat, out));
+    }
+
+    @PostMapping("/rollups/backfill")
+    @PreAuthorize("hasRole('OWNER')")
+    public ResponseEntity<Map<String, Object>> backfillRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        return ResponseEntity.ok(reportService.backfillRollups(startDate, endDate));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String name, ExportWriter.Format format,
+                                                         StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -5,8 +5,10 @@ import com.restaurant.billing.security.TenantContext;
 import com.restaurant.billing.service.SyncService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -16,18 +18,37 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class SyncController {
 
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
     private final SyncService syncService;
 
-    @PostMapping
+    @PostMapping(
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<SyncResponse> performSync(@RequestBody SyncRequest request) {
         return ResponseEntity.ok(syncService.performSync(request));
     }
 
-    @GetMapping("/delta")
+    @GetMapping(value = "/delta",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<DeltaSyncResponse> getDeltaChanges(
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastSyncTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastSyncTime,
             @RequestParam String deviceId) {
         UUID tenantId = TenantContext.getTenantId();
-        return ResponseEntity.ok(syncService.getDeltaChanges(tenantId, lastSyncTime, deviceId));
+        return ResponseEntity.ok(syncService.getDeltaChanges(tenantId, cursor, limit, lastSyncTime, deviceId));
+    }
+
+    @GetMapping(value = "/delta/wait",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public DeferredResult<DeltaSyncResponse> awaitDeltaChanges(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastSyncTime,
+            @RequestParam String deviceId,
+            @RequestParam(defaultValue = "25000") long waitMs) {
+        UUID tenantId = TenantContext.getTenantId();
+        return syncService.awaitDeltaChanges(tenantId, cursor, limit, lastSyncTime, deviceId, waitMs);
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.restaurant.billing.dto.billing;
+
+import lombok.*;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillStatusDto {
+    private UUID orderId;
+    private String status;
+    private BillDto bill;
+
+    public enum Status {
+        PENDING, READY, FAILED
+    }
+}
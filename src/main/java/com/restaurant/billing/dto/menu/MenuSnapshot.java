@@ -0,0 +1,20 @@
+package com.restaurant.billing.dto.menu;
+
+import lombok.*;
+
+/**
+ * A tenant's menu serialized once, kept both as JSON and gzip-compressed so it
+ * can be written to any number of clients without re-encoding.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuSnapshot {
+    private long version;
+    private String etag;
+    // Strong ETags differ per content encoding
+    private String gzipEtag;
+    private byte[] json;
+    private byte[] gzip;
+}
@@ -0,0 +1,14 @@
+package com.restaurant.billing.dto.order;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageDto {
+    private List<OrderDto> items;
+    private String nextCursor;
+    private Boolean hasMore;
+}
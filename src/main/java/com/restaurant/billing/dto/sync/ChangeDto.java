@@ -16,5 +16,6 @@ public class ChangeDto {
     private String operation;
     private LocalDateTime timestamp;
     private Long version;
+    private Long sequence;
     private Map<String, Object> payload;
 }
@@ -15,4 +15,6 @@ public class ConflictDto {
     private UUID entityId;
     private String entityType;
     private String reason;
+    private Long serverVersion;
+    private List<FieldConflictDto> fields;
 }
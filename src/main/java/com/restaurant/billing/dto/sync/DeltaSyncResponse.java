@@ -14,5 +14,6 @@ public class DeltaSyncResponse {
     private List<ChangeDto> changes;
     private LocalDateTime timestamp;
     private Boolean hasMore;
+    private String nextCursor;
 }
 
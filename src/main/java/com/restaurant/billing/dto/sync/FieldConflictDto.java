@@ -0,0 +1,15 @@
+package com.restaurant.billing.dto.sync;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldConflictDto {
+    private String field;
+    private Object clientValue;
+    private Object serverValue;
+    // CLIENT_WINS, SERVER_WINS or MERGED
+    private String resolution;
+}
@@ -14,7 +14,11 @@ public class SyncItemDto {
     private String entityType;
     private UUID entityId;
     private String operation;
+    // Client-generated per write; a retried item carrying the same key is applied only once
+    private UUID idempotencyKey;
     private Long clientVersion;
+    // When the device made the edit; breaks last-writer-wins ties on concurrent field edits
+    private LocalDateTime clientModifiedAt;
     private Map<String, Object> payload;
 }
 
@@ -11,6 +11,8 @@ import java.util.UUID;
 @AllArgsConstructor
 public class SyncResultDto {
     private UUID entityId;
+    // Id the device used for the entity; differs from entityId for server-assigned creates
+    private UUID clientEntityId;
     private String status;
     private Long serverVersion;
 }
\ No newline at end of file
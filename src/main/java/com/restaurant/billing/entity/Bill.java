@@ -10,13 +10,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "bills")
+@Table(name = "bills", uniqueConstraints = @UniqueConstraint(
+        name = "uk_bills_tenant_bill_number", columnNames = {"tenant_id", "bill_number"}))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, DocumentNumberListener.class})
 public class Bill {
 
     @Id
@@ -30,7 +31,7 @@ public class Bill {
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
-    @Column(name = "bill_number", unique = true, nullable = false)
+    @Column(name = "bill_number", nullable = false)
     private String billNumber;
 
     @Column(name = "subtotal", precision = 10, scale = 2)
@@ -80,15 +81,4 @@ public class Bill {
     public enum PaymentStatus {
         PENDING, PAID, PARTIALLY_PAID, REFUNDED
     }
-
-    @PrePersist
-    public void prePersist() {
-        if (billNumber == null) {
-            billNumber = generateBillNumber();
-        }
-    }
-
-    private String generateBillNumber() {
-        return "BILL" + System.currentTimeMillis();
-    }
 }
\ No newline at end of file
@@ -9,13 +9,14 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", uniqueConstraints = @UniqueConstraint(
+        name = "uk_bookings_tenant_booking_number", columnNames = {"tenant_id", "booking_number"}))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, DocumentNumberListener.class})
 public class Booking {
 
     @Id
@@ -29,7 +30,7 @@ public class Booking {
     @JoinColumn(name = "table_id")
     private RestaurantTable table;
 
-    @Column(name = "booking_number", unique = true)
+    @Column(name = "booking_number")
     private String bookingNumber;
 
     @Column(name = "customer_name", nullable = false)
@@ -61,15 +62,4 @@ public class Booking {
     public enum BookingStatus {
         CONFIRMED, CANCELLED, COMPLETED, NO_SHOW
     }
-
-    @PrePersist
-    public void prePersist() {
-        if (bookingNumber == null) {
-            bookingNumber = generateBookingNumber();
-        }
-    }
-
-    private String generateBookingNumber() {
-        return "BK" + System.currentTimeMillis();
-    }
 }
\ No newline at end of file
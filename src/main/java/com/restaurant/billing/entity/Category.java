@@ -7,6 +7,8 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -16,8 +18,10 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
-public class Category {
+@EntityListeners({AuditingEntityListener.class, ChangeFeedListener.class})
+public class Category implements ChangeTracked {
+
+    public static final String CHANGE_ENTITY_TYPE = "CATEGORY";
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -42,4 +46,24 @@ public class Category {
     @LastModifiedDate
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    @Override
+    public String getChangeEntityType() {
+        return CHANGE_ENTITY_TYPE;
+    }
+
+    @Override
+    public boolean isChangeDeleted() {
+        return Boolean.FALSE.equals(isActive);
+    }
+
+    @Override
+    public Map<String, Object> toChangePayload() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", id);
+        payload.put("name", name);
+        payload.put("displayOrder", displayOrder);
+        payload.put("isActive", isActive);
+        return payload;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.restaurant.billing.entity;
+
+import com.restaurant.billing.service.ChangeFeedService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends a change log row after every insert and update of a {@link ChangeTracked}
+ * entity, on the same connection and inside the same transaction as the write.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedListener {
+
+    private final ChangeFeedService changeFeedService;
+
+    @PostPersist
+    public void afterInsert(Object entity) {
+        if (entity instanceof ChangeTracked tracked) {
+            changeFeedService.append(tracked, ChangeFeedService.CREATE);
+        }
+    }
+
+    @PostUpdate
+    public void afterUpdate(Object entity) {
+        if (entity instanceof ChangeTracked tracked) {
+            changeFeedService.append(tracked,
+                    tracked.isChangeDeleted() ? ChangeFeedService.DELETE : ChangeFeedService.UPDATE);
+        }
+    }
+}
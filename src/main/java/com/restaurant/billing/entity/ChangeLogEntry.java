@@ -0,0 +1,59 @@
+package com.restaurant.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One write to a {@link ChangeTracked} entity. Rows are appended in the writing
+ * transaction and ordered per tenant by {@code seq}, so delta sync is a single
+ * range scan over (tenant_id, seq).
+ */
+@Entity
+@Table(name = "change_log", uniqueConstraints = @UniqueConstraint(
+        name = "uk_change_log_tenant_seq", columnNames = {"tenant_id", "seq"}),
+        indexes = @Index(name = "idx_change_log_tenant_entity", columnList = "tenant_id, entity_type, entity_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeLogEntry {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+
+    @Column(name = "entity_type", nullable = false, length = 30)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    @Column(name = "operation", nullable = false, length = 10)
+    private String operation;
+
+    // Device whose sync push made the write; null for writes made any other way
+    @Column(name = "device_id")
+    private String deviceId;
+
+    @Column(name = "version")
+    private Long version;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", columnDefinition = "jsonb")
+    private Map<String, Object> payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
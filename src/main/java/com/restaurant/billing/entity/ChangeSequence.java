@@ -0,0 +1,27 @@
+package com.restaurant.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Per-tenant counter backing {@link com.restaurant.billing.service.ChangeSequenceService}.
+ * {@code lastSeq} is the highest change sequence handed out for the tenant.
+ */
+@Entity
+@Table(name = "change_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeSequence {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+}
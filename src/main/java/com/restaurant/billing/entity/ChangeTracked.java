@@ -0,0 +1,27 @@
+package com.restaurant.billing.entity;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entities whose writes are appended to the {@code change_log} feed read by delta sync.
+ * Register {@link ChangeFeedListener} on the entity to take part.
+ */
+public interface ChangeTracked {
+
+    UUID getId();
+
+    UUID getTenantId();
+
+    String getChangeEntityType();
+
+    Map<String, Object> toChangePayload();
+
+    default Long getVersion() {
+        return null;
+    }
+
+    default boolean isChangeDeleted() {
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.restaurant.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Incrementally maintained dashboard figures, one row per tenant. Writes adjust
+ * the row in the same transaction as the business change; a periodic job
+ * recomputes it from the source tables.
+ */
+@Entity
+@Table(name = "dashboard_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardCounter {
+
+    @Id
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "active_orders", nullable = false)
+    private Long activeOrders;
+
+    @Column(name = "pending_payments", nullable = false)
+    private Long pendingPayments;
+
+    @Column(name = "tables_occupied", nullable = false)
+    private Long tablesOccupied;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "today_sales", nullable = false, precision = 12, scale = 2)
+    private BigDecimal todaySales;
+
+    @Column(name = "reconciled_at")
+    private LocalDateTime reconciledAt;
+}
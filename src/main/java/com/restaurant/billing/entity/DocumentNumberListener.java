@@ -0,0 +1,29 @@
+package com.restaurant.billing.entity;
+
+import com.restaurant.billing.service.DocumentNumberAllocator;
+import com.restaurant.billing.service.DocumentNumberAllocator.DocumentType;
+import jakarta.persistence.PrePersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Assigns order, bill and booking numbers on insert. Hibernate resolves this
+ * listener through Spring's bean container, so the allocator is injected.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentNumberListener {
+
+    private final DocumentNumberAllocator allocator;
+
+    @PrePersist
+    public void assignNumber(Object entity) {
+        if (entity instanceof Order order && order.getOrderNumber() == null) {
+            order.setOrderNumber(allocator.next(order.getTenantId(), DocumentType.ORDER));
+        } else if (entity instanceof Bill bill && bill.getBillNumber() == null) {
+            bill.setBillNumber(allocator.next(bill.getTenantId(), DocumentType.BILL));
+        } else if (entity instanceof Booking booking && booking.getBookingNumber() == null) {
+            booking.setBookingNumber(allocator.next(booking.getTenantId(), DocumentType.BOOKING));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.restaurant.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Hi/lo table backing {@link com.restaurant.billing.service.DocumentNumberAllocator}.
+ * One row per tenant, document type and day; {@code highValue} is the last number
+ * reserved by any node.
+ */
+@Entity
+@Table(name = "document_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentSequence {
+
+    @Id
+    @Column(name = "sequence_key", length = 100)
+    private String sequenceKey;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "sequence_type", nullable = false, length = 20)
+    private String sequenceType;
+
+    @Column(name = "sequence_date", nullable = false)
+    private LocalDate sequenceDate;
+
+    @Column(name = "high_value", nullable = false)
+    private Long highValue;
+}
@@ -36,6 +36,10 @@ public class FeatureCatalog {
     @Column(name = "default_enabled")
     private Boolean defaultEnabled = true;
 
+    // Stable position in entitlement bitsets, including the ones embedded in access tokens
+    @Column(name = "bit_index", unique = true)
+    private Integer bitIndex;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
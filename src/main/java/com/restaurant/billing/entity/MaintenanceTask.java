@@ -0,0 +1,30 @@
+package com.restaurant.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Claim and completion marker for a one-time maintenance job, so it runs once per
+ * database rather than on every node at every startup.
+ */
+@Entity
+@Table(name = "maintenance_tasks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaintenanceTask {
+
+    @Id
+    @Column(name = "task_name", length = 100)
+    private String taskName;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
\ No newline at end of file
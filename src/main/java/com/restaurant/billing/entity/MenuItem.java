@@ -8,6 +8,8 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
@@ -17,8 +19,10 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
-public class MenuItem {
+@EntityListeners({AuditingEntityListener.class, ChangeFeedListener.class})
+public class MenuItem implements ChangeTracked {
+
+    public static final String CHANGE_ENTITY_TYPE = "MENU_ITEM";
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -71,4 +75,24 @@ public class MenuItem {
     @LastModifiedDate
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    @Override
+    public String getChangeEntityType() {
+        return CHANGE_ENTITY_TYPE;
+    }
+
+    @Override
+    public boolean isChangeDeleted() {
+        return Boolean.TRUE.equals(isDeleted);
+    }
+
+    @Override
+    public Map<String, Object> toChangePayload() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", id);
+        payload.put("name", name);
+        payload.put("price", price);
+        payload.put("isAvailable", isAvailable);
+        return payload;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.restaurant.billing.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -9,18 +11,32 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = @UniqueConstraint(
+        name = "uk_orders_tenant_order_number", columnNames = {"tenant_id", "order_number"}),
+        indexes = @Index(name = "idx_orders_tenant_created_id", columnList = "tenant_id, created_at, id"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@EntityListeners(AuditingEntityListener.class)
-public class Order {
+@EntityListeners({AuditingEntityListener.class, DocumentNumberListener.class, ChangeFeedListener.class})
+public class Order implements ChangeTracked {
+
+    public static final String CHANGE_ENTITY_TYPE = "ORDER";
+
+    public static final String FIELD_STATUS = "orderStatus";
+    public static final String FIELD_NOTES = "notes";
+    public static final String FIELD_CUSTOMER_NAME = "customerName";
+    public static final String FIELD_CUSTOMER_PHONE = "customerPhone";
+    public static final String FIELD_ITEMS = "items";
+    public static final List<String> MERGEABLE_FIELDS =
+            List.of(FIELD_STATUS, FIELD_NOTES, FIELD_CUSTOMER_NAME, FIELD_CUSTOMER_PHONE, FIELD_ITEMS);
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -33,7 +49,7 @@ public class Order {
     @JoinColumn(name = "table_id")
     private RestaurantTable table;
 
-    @Column(name = "order_number", unique = true)
+    @Column(name = "order_number")
     private String orderNumber;
 
     @Column(name = "customer_name")
@@ -92,6 +108,18 @@ public class Order {
     @Column(name = "device_id")
     private String deviceId;
 
+    // Order version at which each mergeable field last changed; drives per-field sync merges
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "field_versions", columnDefinition = "jsonb")
+    @Builder.Default
+    private Map<String, Long> fieldVersions = new HashMap<>();
+
+    // When each mergeable field last changed, as reported by the editing device; last-writer-wins compares these
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "field_modified_at", columnDefinition = "jsonb")
+    @Builder.Default
+    private Map<String, LocalDateTime> fieldModifiedAt = new HashMap<>();
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -108,15 +136,79 @@ public class Order {
         DINE_IN, TAKEAWAY, DELIVERY, QR_ORDER
     }
 
+    @Override
+    public String getChangeEntityType() {
+        return CHANGE_ENTITY_TYPE;
+    }
+
+    @Override
+    public boolean isChangeDeleted() {
+        return Boolean.TRUE.equals(isDeleted);
+    }
+
+    @Override
+    public Map<String, Object> toChangePayload() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", id);
+        payload.put("orderNumber", orderNumber);
+        payload.put("totalAmount", totalAmount);
+        payload.put("status", orderStatus != null ? orderStatus.name() : null);
+        return payload;
+    }
+
     @PrePersist
-    public void prePersist() {
-        if (orderNumber == null) {
-            orderNumber = generateOrderNumber();
+    void trackFields() {
+        if (fieldVersions == null) {
+            fieldVersions = new HashMap<>();
+        }
+        for (String field : MERGEABLE_FIELDS) {
+            fieldVersions.putIfAbsent(field, version != null ? version : 1L);
         }
     }
 
-    private String generateOrderNumber() {
-        return "ORD" + System.currentTimeMillis();
+    /**
+     * Version at which {@code field} last changed. Every field is recorded when the
+     * order is created, so a field with no entry comes from a row written before fields
+     * were tracked; it reports the current version, so any concurrent edit is merged.
+     */
+    public long getFieldVersion(String field) {
+        Long fieldVersion = fieldVersions != null ? fieldVersions.get(field) : null;
+        if (fieldVersion != null) {
+            return fieldVersion;
+        }
+        return version != null ? version : 1L;
+    }
+
+    /**
+     * When {@code field} last changed, falling back to the order's last update for
+     * fields changed before edit times were tracked.
+     */
+    public LocalDateTime getFieldModifiedAt(String field) {
+        LocalDateTime modifiedAt = fieldModifiedAt != null ? fieldModifiedAt.get(field) : null;
+        return modifiedAt != null ? modifiedAt : updatedAt;
+    }
+
+    public void markFieldChanged(String field, LocalDateTime modifiedAt) {
+        if (fieldVersions == null) {
+            fieldVersions = new HashMap<>();
+        }
+        if (fieldModifiedAt == null) {
+            fieldModifiedAt = new HashMap<>();
+        }
+        fieldVersions.put(field, version);
+        fieldModifiedAt.put(field, modifiedAt);
+    }
+
+    public void recalculateSubtotal() {
+        items.forEach(OrderItem::calculateTotal);
+        this.subtotal = items.stream()
+                .map(OrderItem::getTotalPrice)
+                .filter(java.util.Objects::nonNull)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.totalAmount = subtotal
+                .add(taxAmount != null ? taxAmount : BigDecimal.ZERO)
+                .add(serviceCharge != null ? serviceCharge : BigDecimal.ZERO)
+                .subtract(discountAmount != null ? discountAmount : BigDecimal.ZERO);
     }
 
     public void addItem(OrderItem item) {
@@ -0,0 +1,45 @@
+package com.restaurant.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Quantity and revenue of paid order lines per tenant, hour and menu item.
+ */
+@Entity
+@Table(name = "product_sales_hourly_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_product_sales_hourly_rollups_tenant_bucket_item",
+        columnNames = {"tenant_id", "bucket_start", "menu_item_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductSalesHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "menu_item_id", nullable = false)
+    private UUID menuItemId;
+
+    @Column(name = "item_name", nullable = false)
+    private String itemName;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,38 @@
+package com.restaurant.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Paid bill totals per tenant and hour, keyed by the hour the bill was created in.
+ */
+@Entity
+@Table(name = "sales_hourly_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_sales_hourly_rollups_tenant_bucket", columnNames = {"tenant_id", "bucket_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesHourlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "bill_count", nullable = false)
+    private Long billCount;
+
+    @Column(name = "total_sales", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalSales;
+}
@@ -0,0 +1,60 @@
+package com.restaurant.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outcome of a sync write, keyed by the client-generated idempotency key, so a
+ * retried item is answered from here instead of being applied a second time.
+ */
+@Entity
+@Table(name = "sync_idempotency_keys", indexes = {
+        @Index(name = "idx_sync_idempotency_keys_created", columnList = "created_at")
+})
+@IdClass(SyncIdempotencyKey.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncIdempotencyKey {
+
+    @Id
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Id
+    @Column(name = "idempotency_key", nullable = false)
+    private UUID idempotencyKey;
+
+    @Column(name = "entity_id")
+    private UUID entityId;
+
+    @Column(name = "server_version")
+    private Long serverVersion;
+
+    @Column(name = "status", length = 16)
+    private String status;
+
+    // Conflict reported with the original result, e.g. fields where the server value was kept
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "conflict", columnDefinition = "jsonb")
+    private String conflict;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID tenantId;
+        private UUID idempotencyKey;
+    }
+}
@@ -12,7 +12,9 @@ import java.util.Map;
 import java.util.UUID;
 
 @Entity
-@Table(name = "sync_logs")
+@Table(name = "sync_logs", indexes = {
+        @Index(name = "idx_sync_logs_tenant_device_created", columnList = "tenant_id, device_id, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -59,7 +61,7 @@ public class SyncLog {
     private Long serverVersion;
 
     @CreatedDate
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     public enum SyncOperation {
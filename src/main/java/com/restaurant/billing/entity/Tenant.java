@@ -101,6 +101,10 @@ public class Tenant {
     @Column(name = "max_storage_gb")
     private Integer maxStorageGb = 1;
 
+    // Bumped by EntitlementRegistry whenever feature access changes; never written through the entity
+    @Column(name = "entitlement_version", updatable = false)
+    private Long entitlementVersion;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,13 @@
+package com.restaurant.billing.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class ChangeFeedAdvancedEvent {
+    private final UUID tenantId;
+    private final long seq;
+}
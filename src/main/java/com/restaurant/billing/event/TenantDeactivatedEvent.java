@@ -0,0 +1,12 @@
+package com.restaurant.billing.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class TenantDeactivatedEvent {
+    private final UUID tenantId;
+}
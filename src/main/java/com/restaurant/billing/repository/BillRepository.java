@@ -1,11 +1,16 @@
 package com.restaurant.billing.repository;
 
 import com.restaurant.billing.entity.Bill;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,13 +18,46 @@ import java.util.UUID;
 @Repository
 public interface BillRepository extends JpaRepository<Bill, UUID> {
     Optional<Bill> findByOrderId(UUID orderId);
-    Optional<Bill> findByBillNumber(String billNumber);
+    List<Bill> findByOrderIdIn(Collection<UUID> orderIds);
+
+    @Query("SELECT b FROM Bill b JOIN FETCH b.order WHERE b.order.id = :orderId AND b.tenantId = :tenantId")
+    Optional<Bill> findWithOrderByOrderIdAndTenantId(UUID orderId, UUID tenantId);
+    Optional<Bill> findByTenantIdAndBillNumber(UUID tenantId, String billNumber);
+
+    @EntityGraph(attributePaths = "order")
+    Optional<Bill> findWithOrderByIdAndTenantId(UUID id, UUID tenantId);
+
+    // Payments and refunds of the same bill run one after another, each seeing the other's status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Bill b JOIN FETCH b.order WHERE b.id = :id AND b.tenantId = :tenantId")
+    Optional<Bill> lockWithOrderByIdAndTenantId(UUID id, UUID tenantId);
+
+    @Query("SELECT b FROM Bill b JOIN FETCH b.order o JOIN FETCH o.tenant LEFT JOIN FETCH o.items " +
+            "WHERE b.id = :id AND b.tenantId = :tenantId")
+    Optional<Bill> findInvoiceViewByIdAndTenantId(UUID id, UUID tenantId);
     List<Bill> findByTenantId(UUID tenantId);
 
+    long countByTenantIdAndPaymentStatus(UUID tenantId, Bill.PaymentStatus paymentStatus);
+
+    @Query("SELECT b.tenantId, MIN(b.createdAt) FROM Bill b WHERE b.paymentStatus = :status GROUP BY b.tenantId")
+    List<Object[]> findEarliestBillPerTenant(Bill.PaymentStatus status);
+
+    @Query("SELECT COALESCE(SUM(b.totalAmount), 0) FROM Bill b WHERE b.tenantId = :tenantId " +
+            "AND b.createdAt >= :startDate AND b.createdAt < :endDate")
+    BigDecimal sumTotalAmount(UUID tenantId, LocalDateTime startDate, LocalDateTime endDate);
+
     @Query("SELECT b FROM Bill b WHERE b.tenantId = :tenantId " +
             "AND b.createdAt BETWEEN :startDate AND :endDate")
     List<Bill> findByDateRange(UUID tenantId, LocalDateTime startDate, LocalDateTime endDate);
 
+    @Query("SELECT b.createdAt, b.totalAmount FROM Bill b " +
+            "WHERE b.tenantId = :tenantId AND b.paymentStatus = :status " +
+            "AND ((b.createdAt >= :headStart AND b.createdAt < :headEnd) " +
+            "OR (b.createdAt >= :tailStart AND b.createdAt <= :tailEnd))")
+    List<Object[]> findSalesInEdges(UUID tenantId, Bill.PaymentStatus status,
+                                    LocalDateTime headStart, LocalDateTime headEnd,
+                                    LocalDateTime tailStart, LocalDateTime tailEnd);
+
     @Query("SELECT CAST(b.createdAt AS DATE), SUM(b.totalAmount) FROM Bill b " +
             "WHERE b.tenantId = :tenantId AND b.createdAt BETWEEN :startDate AND :endDate " +
             "GROUP BY CAST(b.createdAt AS DATE) ORDER BY CAST(b.createdAt AS DATE)")
@@ -0,0 +1,23 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, UUID> {
+
+    // Skips only the requesting device's own sync writes
+    @Query("SELECT c FROM ChangeLogEntry c WHERE c.tenantId = :tenantId AND c.seq > :afterSeq " +
+            "AND (:deviceId IS NULL OR c.deviceId IS NULL OR c.deviceId <> :deviceId) ORDER BY c.seq")
+    List<ChangeLogEntry> findChangesAfter(UUID tenantId, long afterSeq, String deviceId, Pageable pageable);
+
+    @Query("SELECT MIN(c.seq) FROM ChangeLogEntry c WHERE c.tenantId = :tenantId AND c.createdAt > :since")
+    Long findFirstSeqSince(UUID tenantId, LocalDateTime since);
+}
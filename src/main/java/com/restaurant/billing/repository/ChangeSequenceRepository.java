@@ -0,0 +1,11 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.ChangeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ChangeSequenceRepository extends JpaRepository<ChangeSequence, UUID> {
+}
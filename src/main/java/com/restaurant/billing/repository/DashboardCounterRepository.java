@@ -0,0 +1,46 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.DashboardCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DashboardCounterRepository extends JpaRepository<DashboardCounter, UUID> {
+
+    @Query("SELECT c.tenantId FROM DashboardCounter c")
+    List<UUID> findAllTenantIds();
+
+    @Modifying
+    @Query("UPDATE DashboardCounter c SET c.activeOrders = c.activeOrders + :delta WHERE c.tenantId = :tenantId")
+    int addActiveOrders(UUID tenantId, long delta);
+
+    @Modifying
+    @Query("UPDATE DashboardCounter c SET c.pendingPayments = c.pendingPayments + :delta WHERE c.tenantId = :tenantId")
+    int addPendingPayments(UUID tenantId, long delta);
+
+    @Modifying
+    @Query("UPDATE DashboardCounter c SET " +
+            "c.todaySales = CASE WHEN c.salesDate = :today THEN c.todaySales + :amount ELSE :amount END, " +
+            "c.salesDate = :today WHERE c.tenantId = :tenantId")
+    int addSales(UUID tenantId, LocalDate today, BigDecimal amount);
+
+    @Modifying
+    @Query(value = "INSERT INTO dashboard_counters " +
+            "(tenant_id, active_orders, pending_payments, tables_occupied, sales_date, today_sales, reconciled_at) " +
+            "VALUES (:tenantId, :activeOrders, :pendingPayments, :tablesOccupied, :salesDate, :todaySales, :reconciledAt) " +
+            "ON CONFLICT (tenant_id) DO UPDATE SET " +
+            "active_orders = EXCLUDED.active_orders, pending_payments = EXCLUDED.pending_payments, " +
+            "tables_occupied = EXCLUDED.tables_occupied, sales_date = EXCLUDED.sales_date, " +
+            "today_sales = EXCLUDED.today_sales, reconciled_at = EXCLUDED.reconciled_at",
+            nativeQuery = true)
+    int upsert(UUID tenantId, long activeOrders, long pendingPayments, long tablesOccupied,
+               LocalDate salesDate, BigDecimal todaySales, LocalDateTime reconciledAt);
+}
@@ -2,6 +2,7 @@ package com.restaurant.billing.repository;
 
 import com.restaurant.billing.entity.FeatureCatalog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +10,7 @@ import java.util.List;
 @Repository
 public interface FeatureCatalogRepository extends JpaRepository<FeatureCatalog, String> {
     List<FeatureCatalog> findByIsPremium(Boolean isPremium);
+
+    @Query("SELECT f.featureCode, f.bitIndex FROM FeatureCatalog f WHERE f.bitIndex IS NOT NULL")
+    List<Object[]> findBitIndexes();
 }
\ No newline at end of file
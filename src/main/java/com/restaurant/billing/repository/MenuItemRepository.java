@@ -1,11 +1,13 @@
 package com.restaurant.billing.repository;
 
 import com.restaurant.billing.entity.MenuItem;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,8 +16,9 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, UUID> {
     List<MenuItem> findByTenantIdAndIsDeleted(UUID tenantId, Boolean isDeleted);
     List<MenuItem> findByTenantIdAndCategoryIdAndIsDeleted(
             UUID tenantId, UUID categoryId, Boolean isDeleted);
+    List<MenuItem> findAllByIdInAndTenantId(Collection<UUID> ids, UUID tenantId);
 
-    @Query("SELECT m FROM MenuItem m WHERE m.tenantId = :tenantId " +
-            "AND m.updatedAt > :lastSyncTime AND m.deviceId != :deviceId")
-    List<MenuItem> findDeltaChanges(UUID tenantId, LocalDateTime lastSyncTime, String deviceId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MenuItem m WHERE m.id IN :ids AND m.tenantId = :tenantId ORDER BY m.id")
+    List<MenuItem> lockAllByIdInAndTenantId(Collection<UUID> ids, UUID tenantId);
 }
\ No newline at end of file
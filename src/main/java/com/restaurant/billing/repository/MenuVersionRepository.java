@@ -0,0 +1,23 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.MenuVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MenuVersionRepository extends JpaRepository<MenuVersion, UUID> {
+
+    @Modifying
+    @Query(value = "INSERT INTO menu_versions (tenant_id, version, updated_at) VALUES (:tenantId, 1, now()) " +
+            "ON CONFLICT (tenant_id) DO UPDATE SET version = menu_versions.version + 1, updated_at = now()",
+            nativeQuery = true)
+    int bump(UUID tenantId);
+
+    @Query("SELECT v.version FROM MenuVersion v WHERE v.tenantId = :tenantId")
+    Optional<Long> findVersionByTenantId(UUID tenantId);
+}
@@ -0,0 +1,25 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, UUID> {
+
+    @Query(value = "SELECT * FROM order_events WHERE status = 'PENDING' " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OrderEvent> claimPending(int limit);
+
+    @Query(value = "SELECT * FROM order_events WHERE id = :id AND status = 'PENDING' " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<OrderEvent> claimById(UUID id);
+
+    Optional<OrderEvent> findFirstByOrderIdAndTenantIdAndEventTypeOrderByCreatedAtDesc(
+            UUID orderId, UUID tenantId, OrderEvent.EventType eventType);
+}
@@ -1,5 +1,6 @@
 package com.restaurant.billing.repository;
 
+import com.restaurant.billing.entity.Bill;
 import com.restaurant.billing.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -17,4 +18,14 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, UUID> {
             "WHERE o.tenantId = :tenantId AND o.createdAt BETWEEN :startDate AND :endDate " +
             "GROUP BY oi.menuItem.id, oi.itemName ORDER BY SUM(oi.totalPrice) DESC")
     List<Object[]> getProductSales(UUID tenantId, LocalDateTime startDate, LocalDateTime endDate);
+
+    @Query("SELECT oi.menuItem.id, oi.itemName, SUM(oi.quantity), SUM(oi.totalPrice) " +
+            "FROM Bill b JOIN b.order o JOIN o.items oi " +
+            "WHERE b.tenantId = :tenantId AND b.paymentStatus = :status " +
+            "AND ((b.createdAt >= :headStart AND b.createdAt < :headEnd) " +
+            "OR (b.createdAt >= :tailStart AND b.createdAt <= :tailEnd)) " +
+            "GROUP BY oi.menuItem.id, oi.itemName")
+    List<Object[]> getProductSalesInEdges(UUID tenantId, Bill.PaymentStatus status,
+                                          LocalDateTime headStart, LocalDateTime headEnd,
+                                          LocalDateTime tailStart, LocalDateTime tailEnd);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderQueryRepository {
+
+    /**
+     * Keyset page of non-deleted orders, newest first, ordered by (createdAt, id).
+     * Filters and the cursor position are optional; the table is fetched with the page.
+     */
+    List<Order> findPage(UUID tenantId, Order.OrderStatus status, Order.OrderType orderType,
+                         UUID tableId, LocalDateTime from, LocalDateTime to,
+                         LocalDateTime afterCreatedAt, UUID afterId, int limit);
+}
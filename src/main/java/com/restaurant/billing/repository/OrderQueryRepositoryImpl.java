@@ -0,0 +1,62 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class OrderQueryRepositoryImpl implements OrderQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Order> findPage(UUID tenantId, Order.OrderStatus status, Order.OrderType orderType,
+                                UUID tableId, LocalDateTime from, LocalDateTime to,
+                                LocalDateTime afterCreatedAt, UUID afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(
+                "SELECT o FROM Order o LEFT JOIN FETCH o.table t " +
+                "WHERE o.tenantId = :tenantId AND o.isDeleted = false");
+        Map<String, Object> params = new HashMap<>();
+        params.put("tenantId", tenantId);
+
+        // Only bind the filters that are present, so every parameter has a concrete type
+        if (status != null) {
+            jpql.append(" AND o.orderStatus = :status");
+            params.put("status", status);
+        }
+        if (orderType != null) {
+            jpql.append(" AND o.orderType = :orderType");
+            params.put("orderType", orderType);
+        }
+        if (tableId != null) {
+            jpql.append(" AND t.id = :tableId");
+            params.put("tableId", tableId);
+        }
+        if (from != null) {
+            jpql.append(" AND o.createdAt >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" AND o.createdAt < :to");
+            params.put("to", to);
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            jpql.append(" AND (o.createdAt < :afterCreatedAt" +
+                    " OR (o.createdAt = :afterCreatedAt AND o.id < :afterId))");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" ORDER BY o.createdAt DESC, o.id DESC");
+
+        TypedQuery<Order> query = entityManager.createQuery(jpql.toString(), Order.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -1,27 +1,53 @@
 package com.restaurant.billing.repository;
 
 import com.restaurant.billing.entity.Order;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderQueryRepository {
     List<Order> findByTenantIdAndIsDeleted(UUID tenantId, Boolean isDeleted);
-    Optional<Order> findByOrderNumber(String orderNumber);
+    Optional<Order> findByTenantIdAndOrderNumber(UUID tenantId, String orderNumber);
+
+    // Locked in id order so chunks touching the same orders cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.tenantId = :tenantId ORDER BY o.id")
+    List<Order> lockAllByIdInAndTenantId(Collection<UUID> ids, UUID tenantId);
+
+    @EntityGraph(attributePaths = {"table", "items"})
+    Optional<Order> findWithTableAndItemsByIdAndTenantId(UUID id, UUID tenantId);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> fetchItems(Collection<UUID> ids);
 
     @Query("SELECT o FROM Order o WHERE o.tenantId = :tenantId " +
             "AND o.createdAt BETWEEN :startDate AND :endDate AND o.isDeleted = false")
     List<Order> findByDateRange(UUID tenantId, LocalDateTime startDate, LocalDateTime endDate);
 
-    @Query("SELECT o FROM Order o WHERE o.tenantId = :tenantId " +
-            "AND o.updatedAt > :lastSyncTime AND o.deviceId != :deviceId")
-    List<Order> findDeltaChanges(UUID tenantId, LocalDateTime lastSyncTime, String deviceId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o.id, o.orderNumber, o.orderType, o.orderStatus, t.tableNumber, o.customerName, " +
+            "o.customerPhone, o.subtotal, o.taxAmount, o.serviceCharge, o.discountAmount, o.totalAmount, " +
+            "o.deviceId, o.createdAt FROM Order o LEFT JOIN o.table t " +
+            "WHERE o.tenantId = :tenantId AND o.isDeleted = false " +
+            "AND o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt, o.id")
+    Stream<Object[]> streamForExport(UUID tenantId, LocalDateTime from, LocalDateTime to);
+
+    long countByTenantIdAndIsDeletedAndOrderStatusIn(
+            UUID tenantId, Boolean isDeleted, Collection<Order.OrderStatus> statuses);
 
     List<Order> findByTenantIdAndSyncedAtIsNullAndIsDeleted(
             UUID tenantId, Boolean isDeleted);
@@ -0,0 +1,91 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.ProductSalesHourlyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface ProductSalesHourlyRollupRepository extends JpaRepository<ProductSalesHourlyRollup, UUID> {
+
+    @Query("SELECT r.menuItemId, MAX(r.itemName), SUM(r.quantity), SUM(r.revenue) " +
+            "FROM ProductSalesHourlyRollup r WHERE r.tenantId = :tenantId " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to GROUP BY r.menuItemId")
+    List<Object[]> getProductSales(UUID tenantId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Per-item totals for [startDate, endDate], combining rollups for the whole hours in
+     * [rollupStart, rollupEnd) with paid order lines from the partial edge hours.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT s.menu_item_id, MAX(s.item_name), SUM(s.quantity), SUM(s.revenue) FROM (" +
+            "SELECT r.menu_item_id, r.item_name, r.quantity, r.revenue " +
+            "FROM product_sales_hourly_rollups r WHERE r.tenant_id = :tenantId " +
+            "AND r.bucket_start >= :rollupStart AND r.bucket_start < :rollupEnd " +
+            "UNION ALL " +
+            "SELECT oi.menu_item_id, oi.item_name, oi.quantity, COALESCE(oi.total_price, 0) " +
+            "FROM bills b JOIN order_items oi ON oi.order_id = b.order_id " +
+            "WHERE b.tenant_id = :tenantId AND b.payment_status = 'PAID' " +
+            "AND ((b.created_at >= :startDate AND b.created_at < :rollupStart) " +
+            "OR (b.created_at >= :rollupEnd AND b.created_at <= :endDate))" +
+            ") s GROUP BY s.menu_item_id ORDER BY SUM(s.revenue) DESC",
+            nativeQuery = true)
+    Stream<Object[]> streamProductSales(UUID tenantId, LocalDateTime startDate, LocalDateTime rollupStart,
+                                        LocalDateTime rollupEnd, LocalDateTime endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO product_sales_hourly_rollups " +
+            "(id, tenant_id, bucket_start, menu_item_id, item_name, quantity, revenue) " +
+            "SELECT gen_random_uuid(), b.tenant_id, date_trunc('hour', b.created_at), oi.menu_item_id, " +
+            "MAX(oi.item_name), SUM(oi.quantity), COALESCE(SUM(oi.total_price), 0) " +
+            "FROM bills b JOIN order_items oi ON oi.order_id = b.order_id " +
+            "WHERE b.id IN (:billIds) AND b.payment_status = 'PAID' " +
+            "GROUP BY b.tenant_id, date_trunc('hour', b.created_at), oi.menu_item_id " +
+            "ON CONFLICT (tenant_id, bucket_start, menu_item_id) DO UPDATE SET " +
+            "item_name = EXCLUDED.item_name, " +
+            "quantity = product_sales_hourly_rollups.quantity + EXCLUDED.quantity, " +
+            "revenue = product_sales_hourly_rollups.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int addPaidBills(Collection<UUID> billIds);
+
+    @Modifying
+    @Query(value = "UPDATE product_sales_hourly_rollups r SET quantity = r.quantity - s.quantity, " +
+            "revenue = r.revenue - s.revenue FROM (" +
+            "SELECT b.tenant_id, date_trunc('hour', b.created_at) AS bucket_start, oi.menu_item_id, " +
+            "SUM(oi.quantity) AS quantity, COALESCE(SUM(oi.total_price), 0) AS revenue " +
+            "FROM bills b JOIN order_items oi ON oi.order_id = b.order_id WHERE b.id IN (:billIds) " +
+            "GROUP BY b.tenant_id, date_trunc('hour', b.created_at), oi.menu_item_id) s " +
+            "WHERE r.tenant_id = s.tenant_id AND r.bucket_start = s.bucket_start " +
+            "AND r.menu_item_id = s.menu_item_id",
+            nativeQuery = true)
+    int subtractBills(Collection<UUID> billIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM product_sales_hourly_rollups WHERE tenant_id = :tenantId " +
+            "AND bucket_start >= :from AND bucket_start < :to", nativeQuery = true)
+    int deleteRange(UUID tenantId, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query(value = "INSERT INTO product_sales_hourly_rollups " +
+            "(id, tenant_id, bucket_start, menu_item_id, item_name, quantity, revenue) " +
+            "SELECT gen_random_uuid(), b.tenant_id, date_trunc('hour', b.created_at), oi.menu_item_id, " +
+            "MAX(oi.item_name), SUM(oi.quantity), COALESCE(SUM(oi.total_price), 0) " +
+            "FROM bills b JOIN order_items oi ON oi.order_id = b.order_id " +
+            "WHERE b.tenant_id = :tenantId AND b.payment_status = 'PAID' " +
+            "AND b.created_at >= :from AND b.created_at < :to " +
+            "GROUP BY b.tenant_id, date_trunc('hour', b.created_at), oi.menu_item_id " +
+            "ON CONFLICT (tenant_id, bucket_start, menu_item_id) DO UPDATE SET " +
+            "item_name = EXCLUDED.item_name, quantity = EXCLUDED.quantity, revenue = EXCLUDED.revenue",
+            nativeQuery = true)
+    int rebuildRange(UUID tenantId, LocalDateTime from, LocalDateTime to);
+}
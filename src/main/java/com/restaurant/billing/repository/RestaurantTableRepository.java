@@ -12,4 +12,5 @@ import java.util.UUID;
 public interface RestaurantTableRepository extends JpaRepository<RestaurantTable, UUID> {
     List<RestaurantTable> findByTenantIdAndIsActive(UUID tenantId, Boolean isActive);
     Optional<RestaurantTable> findByTenantIdAndTableNumber(UUID tenantId, String tableNumber);
+    long countByTenantIdAndStatus(UUID tenantId, RestaurantTable.TableStatus status);
 }
\ No newline at end of file
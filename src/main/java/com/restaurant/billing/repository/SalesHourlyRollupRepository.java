@@ -0,0 +1,85 @@
+package com.restaurant.billing.repository;
+
+import com.restaurant.billing.entity.SalesHourlyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface SalesHourlyRollupRepository extends JpaRepository<SalesHourlyRollup, UUID> {
+
+    @Query("SELECT r.bucketStart, r.totalSales FROM SalesHourlyRollup r WHERE r.tenantId = :tenantId " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    List<Object[]> findBuckets(UUID tenantId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Daily totals for [startDate, endDate]: whole hours in [rollupStart, rollupEnd) come
+     * from the rollups, the partial hours at either edge from paid bills.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT s.sales_date, SUM(s.amount) FROM (" +
+            "SELECT CAST(r.bucket_start AS date) AS sales_date, r.total_sales AS amount " +
+            "FROM sales_hourly_rollups r WHERE r.tenant_id = :tenantId " +
+            "AND r.bucket_start >= :rollupStart AND r.bucket_start < :rollupEnd " +
+            "UNION ALL " +
+            "SELECT CAST(b.created_at AS date), COALESCE(b.total_amount, 0) FROM bills b " +
+            "WHERE b.tenant_id = :tenantId AND b.payment_status = 'PAID' " +
+            "AND ((b.created_at >= :startDate AND b.created_at < :rollupStart) " +
+            "OR (b.created_at >= :rollupEnd AND b.created_at <= :endDate))" +
+            ") s GROUP BY s.sales_date ORDER BY s.sales_date",
+            nativeQuery = true)
+    Stream<Object[]> streamDailySales(UUID tenantId, LocalDateTime startDate, LocalDateTime rollupStart,
+                                      LocalDateTime rollupEnd, LocalDateTime endDate);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_hourly_rollups (id, tenant_id, bucket_start, bill_count, total_sales) " +
+            "SELECT gen_random_uuid(), b.tenant_id, date_trunc('hour', b.created_at), COUNT(*), " +
+            "COALESCE(SUM(b.total_amount), 0) FROM bills b " +
+            "WHERE b.id IN (:billIds) AND b.payment_status = 'PAID' " +
+            "GROUP BY b.tenant_id, date_trunc('hour', b.created_at) " +
+            "ON CONFLICT (tenant_id, bucket_start) DO UPDATE SET " +
+            "bill_count = sales_hourly_rollups.bill_count + EXCLUDED.bill_count, " +
+            "total_sales = sales_hourly_rollups.total_sales + EXCLUDED.total_sales",
+            nativeQuery = true)
+    int addPaidBills(Collection<UUID> billIds);
+
+    /**
+     * Takes bills that are no longer PAID, e.g. refunded, back out of their hours.
+     */
+    @Modifying
+    @Query(value = "UPDATE sales_hourly_rollups r SET bill_count = r.bill_count - s.bill_count, " +
+            "total_sales = r.total_sales - s.total_sales FROM (" +
+            "SELECT b.tenant_id, date_trunc('hour', b.created_at) AS bucket_start, COUNT(*) AS bill_count, " +
+            "COALESCE(SUM(b.total_amount), 0) AS total_sales FROM bills b WHERE b.id IN (:billIds) " +
+            "GROUP BY b.tenant_id, date_trunc('hour', b.created_at)) s " +
+            "WHERE r.tenant_id = s.tenant_id AND r.bucket_start = s.bucket_start",
+            nativeQuery = true)
+    int subtractBills(Collection<UUID> billIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_hourly_rollups WHERE tenant_id = :tenantId " +
+            "AND bucket_start >= :from AND bucket_start < :to", nativeQuery = true)
+    int deleteRange(UUID tenantId, LocalDateTime from, LocalDateTime to);
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_hourly_rollups (id, tenant_id, bucket_start, bill_count, total_sales) " +
+            "SELECT gen_random_uuid(), b.tenant_id, date_trunc('hour', b.created_at), COUNT(*), " +
+            "COALESCE(SUM(b.total_amount), 0) FROM bills b " +
+            "WHERE b.tenant_id = :tenantId AND b.payment_status = 'PAID' " +
+            "AND b.created_at >= :from AND b.created_at < :to " +
+            "GROUP BY b.tenant_id, date_trunc('hour', b.created_at) " +
+            "ON CONFLICT (tenant_id, bucket_start) DO UPDATE SET " +
+            "bill_count = EXCLUDED.bill_count, total_sales = EXCLUDED.total_sales",
+            nativeQuery = true)
+    int rebuildRange(UUID tenantId, LocalDateTime from, LocalDateTime to);
+}
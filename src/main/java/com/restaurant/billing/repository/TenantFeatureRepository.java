@@ -2,6 +2,7 @@ package com.restaurant.billing.repository;
 
 import com.restaurant.billing.entity.TenantFeature;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,7 @@ public interface TenantFeatureRepository extends JpaRepository<TenantFeature, UU
     List<TenantFeature> findByTenantId(UUID tenantId);
     Optional<TenantFeature> findByTenantIdAndFeatureFeatureCode(
             UUID tenantId, String featureCode);
+
+    @Query("SELECT tf.feature.featureCode FROM TenantFeature tf WHERE tf.tenantId = :tenantId AND tf.isEnabled = true")
+    List<String> findEnabledFeatureCodes(UUID tenantId);
 }
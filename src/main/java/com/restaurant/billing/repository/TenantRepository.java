@@ -2,6 +2,8 @@ package com.restaurant.billing.repository;
 
 import com.restaurant.billing.entity.Tenant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -16,4 +18,15 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     List<Tenant> findBySubscriptionStatusAndTrialEndDateBefore(
             Tenant.SubscriptionStatus status, LocalDateTime date);
     boolean existsByOwnerEmail(String email);
+
+    @Query("SELECT t.id FROM Tenant t WHERE t.isActive = false")
+    List<UUID> findInactiveTenantIds();
+
+    @Query("SELECT COALESCE(t.entitlementVersion, 0) FROM Tenant t WHERE t.id = :tenantId")
+    Optional<Long> findEntitlementVersion(UUID tenantId);
+
+    @Modifying
+    @Query(value = "UPDATE tenants SET entitlement_version = COALESCE(entitlement_version, 0) + 1 " +
+            "WHERE id = :tenantId", nativeQuery = true)
+    int bumpEntitlementVersion(UUID tenantId);
 }
@@ -2,6 +2,7 @@ package com.restaurant.billing.repository;
 
 import com.restaurant.billing.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,8 +11,10 @@ import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByEmail(String email);
     Optional<User> findByEmailAndTenantId(String email, UUID tenantId);
     List<User> findByTenantIdAndIsActive(UUID tenantId, Boolean isActive);
     boolean existsByEmailAndTenantId(String email, UUID tenantId);
+
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false")
+    List<UUID> findInactiveUserIds();
 }
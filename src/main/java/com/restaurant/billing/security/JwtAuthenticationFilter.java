@@ -1,5 +1,6 @@
 package com.restaurant.billing.security;
 
+import com.restaurant.billing.service.AccessRevocationRegistry;
 import com.restaurant.billing.service.CustomUserDetailsService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -24,6 +26,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final AccessRevocationRegistry accessRevocationRegistry;
+
+    // When false, every request reloads the user row as before
+    @Value("${app.security.stateless-principal:true}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(
@@ -34,9 +41,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtUtil.isTokenValid(jwt) && !jwtUtil.isTokenExpired(jwt)) {
-                String email = jwtUtil.extractEmail(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            // Verified once per request; the signature check itself is skipped for recently seen tokens
+            VerifiedToken token = StringUtils.hasText(jwt) ? jwtUtil.verify(jwt) : null;
+
+            if (token != null && accessRevocationRegistry.isRevoked(token.getUserId(), token.getTenantId())) {
+                log.debug("Rejected token of deactivated user {} or tenant {}", token.getUserId(), token.getTenantId());
+                token = null;
+            }
+
+            if (token != null) {
+                UserDetails userDetails = statelessPrincipal
+                        ? JwtUserPrincipal.from(token)
+                        : userDetailsService.loadUser(token.getTenantId(), token.getEmail());
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
@@ -46,13 +62,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
                 // Store tenant context
-                TenantContext.setTenantId(jwtUtil.extractTenantId(jwt));
+                TenantContext.setTenantId(token.getTenantId());
+                TenantContext.setEntitlements(token.getEntitlements());
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
         }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // The interceptor only clears requests that reach a handler; this covers the rest
+            TenantContext.clear();
+        }
     }
 
     private String extractJwtFromRequest(HttpServletRequest request) {
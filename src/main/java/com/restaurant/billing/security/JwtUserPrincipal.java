@@ -0,0 +1,52 @@
+package com.restaurant.billing.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Authenticated principal built straight from a verified access token, so a request
+ * never has to load the user row. Account status is enforced separately through
+ * {@link com.restaurant.billing.service.AccessRevocationRegistry}.
+ */
+@Getter
+public class JwtUserPrincipal implements UserDetails {
+
+    private final UUID userId;
+    private final UUID tenantId;
+    private final String email;
+    private final String role;
+    private final List<GrantedAuthority> authorities;
+
+    private JwtUserPrincipal(UUID userId, UUID tenantId, String email, String role) {
+        this.userId = userId;
+        this.tenantId = tenantId;
+        this.email = email;
+        this.role = role;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    public static JwtUserPrincipal from(VerifiedToken token) {
+        return new JwtUserPrincipal(token.getUserId(), token.getTenantId(), token.getEmail(), token.getRole());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
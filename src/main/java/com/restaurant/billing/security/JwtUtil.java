@@ -1,13 +1,17 @@
 package com.restaurant.billing.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,16 +30,42 @@ public class JwtUtil {
     @Value("${app.jwt.refresh-token-expiration}")
     private long refreshTokenExpiration;
 
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+    // Access tokens that already passed signature verification, keyed by the whole token
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(Duration.ofMillis(accessTokenExpiration))
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
-    public String generateAccessToken(UUID userId, String email, UUID tenantId, String role) {
+    private static final String ENTITLEMENTS_CLAIM = "ent";
+    private static final String ENTITLEMENT_VERSION_CLAIM = "entv";
+
+    public String generateAccessToken(UUID userId, String email, UUID tenantId, String role,
+                                      TokenEntitlements entitlements) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId.toString());
         claims.put("email", email);
         claims.put("tenantId", tenantId.toString());
         claims.put("role", role);
+        claims.put(ENTITLEMENTS_CLAIM, entitlements.encode());
+        claims.put(ENTITLEMENT_VERSION_CLAIM, entitlements.getVersion());
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -56,11 +86,47 @@ public class JwtUtil {
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verifies an access token once and returns everything the request needs from it,
+     * or null if the token is malformed, forged or expired. Repeat presentations of a
+     * token are answered from a bounded cache without re-checking the signature.
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verifiedTokens.invalidate(token);
+            return null;
+        }
+
+        Claims claims;
+        try {
+            claims = extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+        String tenantId = claims.get("tenantId", String.class);
+        if (tenantId == null) {
+            // Refresh tokens carry no tenant and are not valid for API calls
+            return null;
+        }
+
+        VerifiedToken verified = VerifiedToken.builder()
+                .email(claims.getSubject())
+                .userId(UUID.fromString(claims.get("userId", String.class)))
+                .tenantId(UUID.fromString(tenantId))
+                .role(claims.get("role", String.class))
+                .entitlements(extractEntitlements(claims))
+                .expiresAt(claims.getExpiration().toInstant())
+                .build();
+        verifiedTokens.put(token, verified);
+        return verified;
     }
 
     public String extractEmail(String token) {
@@ -81,12 +147,25 @@ public class JwtUtil {
         return extractClaims(token).get("role", String.class);
     }
 
+    /**
+     * Entitlements embedded in the token, or null if it was issued without them.
+     */
+    public TokenEntitlements extractEntitlements(String token) {
+        return extractEntitlements(extractClaims(token));
+    }
+
+    private TokenEntitlements extractEntitlements(Claims claims) {
+        String encoded = claims.get(ENTITLEMENTS_CLAIM, String.class);
+        Number version = claims.get(ENTITLEMENT_VERSION_CLAIM, Number.class);
+        if (encoded == null || version == null) {
+            return null;
+        }
+        return TokenEntitlements.decode(encoded, version.longValue());
+    }
+
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
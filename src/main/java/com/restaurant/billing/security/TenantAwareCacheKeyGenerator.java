@@ -2,17 +2,48 @@ package com.restaurant.billing.config;
 
 import com.restaurant.billing.security.TenantContext;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
 import java.util.UUID;
 
+/**
+ * Keys tenant-wide cache entries by tenant. A {@code UUID tenantId} argument wins over
+ * the request's {@link TenantContext}, so calls made for another tenant, or outside a
+ * request, hit that tenant's entry. With neither, the call fails rather than share an
+ * entry between tenants.
+ */
 @Component("tenantAwareKeyGenerator")
 public class TenantAwareCacheKeyGenerator implements KeyGenerator {
 
+    private static final String TENANT_ID_PARAMETER = "tenantId";
+
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+
     @Override
     public Object generate(Object target, Method method, Object... params) {
-        UUID tenantId = TenantContext.getTenantId();
-        return tenantId != null ? tenantId.toString() : "default";
+        UUID tenantId = tenantIdArgument(method, params);
+        if (tenantId == null) {
+            tenantId = TenantContext.getTenantId();
+        }
+        if (tenantId == null) {
+            throw new IllegalStateException("No tenant to key the cache entry for " + method.getName());
+        }
+        return tenantId.toString();
+    }
+
+    private UUID tenantIdArgument(Method method, Object[] params) {
+        String[] names = parameterNames.getParameterNames(method);
+        if (names == null) {
+            return null;
+        }
+        for (int i = 0; i < names.length && i < params.length; i++) {
+            if (TENANT_ID_PARAMETER.equals(names[i]) && params[i] instanceof UUID tenantId) {
+                return tenantId;
+            }
+        }
+        return null;
     }
 }
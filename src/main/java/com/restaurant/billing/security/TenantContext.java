@@ -4,6 +4,7 @@ import java.util.UUID;
 
 public class TenantContext {
     private static final ThreadLocal<UUID> CURRENT_TENANT = new ThreadLocal<>();
+    private static final ThreadLocal<TokenEntitlements> CURRENT_ENTITLEMENTS = new ThreadLocal<>();
 
     public static void setTenantId(UUID tenantId) {
         CURRENT_TENANT.set(tenantId);
@@ -13,7 +14,20 @@ public class TenantContext {
         return CURRENT_TENANT.get();
     }
 
+    public static void setEntitlements(TokenEntitlements entitlements) {
+        CURRENT_ENTITLEMENTS.set(entitlements);
+    }
+
+    /**
+     * Entitlements granted by the current request's access token, or null for tokens
+     * issued without them.
+     */
+    public static TokenEntitlements getEntitlements() {
+        return CURRENT_ENTITLEMENTS.get();
+    }
+
     public static void clear() {
         CURRENT_TENANT.remove();
+        CURRENT_ENTITLEMENTS.remove();
     }
-}
+}
\ No newline at end of file
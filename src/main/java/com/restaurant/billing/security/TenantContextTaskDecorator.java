@@ -0,0 +1,39 @@
+package com.restaurant.billing.security;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Carries the submitting thread's {@link TenantContext} into tasks run by Spring's
+ * executors, and restores the worker's own context afterwards so a pooled thread
+ * never keeps a tenant it was lent. Spring Boot applies it to the {@code @Async}
+ * executor, virtual or pooled, and to executors created from the task executor
+ * builders.
+ */
+@Component
+public class TenantContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        UUID tenantId = TenantContext.getTenantId();
+        TokenEntitlements entitlements = TenantContext.getEntitlements();
+        return () -> {
+            UUID previousTenantId = TenantContext.getTenantId();
+            TokenEntitlements previousEntitlements = TenantContext.getEntitlements();
+            TenantContext.setTenantId(tenantId);
+            TenantContext.setEntitlements(entitlements);
+            try {
+                runnable.run();
+            } finally {
+                if (previousTenantId != null || previousEntitlements != null) {
+                    TenantContext.setTenantId(previousTenantId);
+                    TenantContext.setEntitlements(previousEntitlements);
+                } else {
+                    TenantContext.clear();
+                }
+            }
+        };
+    }
+}
@@ -2,7 +2,7 @@ package com.restaurant.billing.security;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -10,7 +10,7 @@ import java.util.UUID;
 
 @Slf4j
 @Component
-public class TenantInterceptor implements HandlerInterceptor {
+public class TenantInterceptor implements AsyncHandlerInterceptor {
 
     @Override
     public boolean preHandle(
@@ -33,4 +33,13 @@ public class TenantInterceptor implements HandlerInterceptor {
             Exception ex) {
         TenantContext.clear();
     }
+
+    @Override
+    public void afterConcurrentHandlingStarted(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            Object handler) {
+        // afterCompletion is not invoked on the original thread for async requests
+        TenantContext.clear();
+    }
 }
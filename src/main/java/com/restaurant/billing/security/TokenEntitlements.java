@@ -0,0 +1,55 @@
+package com.restaurant.billing.security;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Feature entitlements as carried in an access token: a bitset indexed by each
+ * feature's {@code bit_index} and the tenant's entitlement version at issue time.
+ * Encoded in the token as base64url of the little-endian bitset bytes.
+ */
+public final class TokenEntitlements {
+
+    private final long[] bits;
+    private final long version;
+
+    public TokenEntitlements(long[] bits, long version) {
+        this.bits = bits;
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean has(int bit) {
+        int word = bit >>> 6;
+        return word < bits.length && (bits[word] & (1L << bit)) != 0;
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(bits.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long word : bits) {
+            buffer.putLong(word);
+        }
+        byte[] bytes = buffer.array();
+        int length = bytes.length;
+        while (length > 0 && bytes[length - 1] == 0) {
+            length--;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(bytes, length));
+    }
+
+    public static TokenEntitlements decode(String encoded, long version) {
+        byte[] bytes = Base64.getUrlDecoder().decode(encoded);
+        ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, (bytes.length + 7) / 8 * 8))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        long[] bits = new long[buffer.capacity() / Long.BYTES];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = buffer.getLong();
+        }
+        return new TokenEntitlements(bits, version);
+    }
+}
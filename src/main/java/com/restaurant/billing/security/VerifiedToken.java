@@ -0,0 +1,26 @@
+package com.restaurant.billing.security;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The claims of an access token whose signature has been verified, decoded once
+ * per token rather than once per accessor.
+ */
+@Getter
+@Builder
+public class VerifiedToken {
+    private final String email;
+    private final UUID userId;
+    private final UUID tenantId;
+    private final String role;
+    private final TokenEntitlements entitlements;
+    private final Instant expiresAt;
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(expiresAt);
+    }
+}
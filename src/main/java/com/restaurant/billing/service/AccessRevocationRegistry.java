@@ -0,0 +1,89 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.event.TenantDeactivatedEvent;
+import com.restaurant.billing.repository.TenantRepository;
+import com.restaurant.billing.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-memory set of deactivated users and tenants, checked on every authenticated
+ * request in place of loading the user row. The sets are rebuilt from the database
+ * every {@code app.security.revocation.refresh-interval-ms}, which bounds how long a
+ * token of a deactivated account stays usable; deactivations made on this node are
+ * applied as soon as they commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccessRevocationRegistry {
+
+    private final UserRepository userRepository;
+    private final TenantRepository tenantRepository;
+
+    private volatile Set<UUID> revokedUsers = Set.of();
+    private volatile Set<UUID> revokedTenants = Set.of();
+    // Bumped by every local revocation, so a refresh that read the database before it keeps it
+    private long revocations;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    public boolean isRevoked(UUID userId, UUID tenantId) {
+        return revokedUsers.contains(userId) || revokedTenants.contains(tenantId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTenantDeactivated(TenantDeactivatedEvent event) {
+        revokeTenant(event.getTenantId());
+    }
+
+    /**
+     * Call only once the deactivation has committed, so a rolled-back change never
+     * revokes and a refresh reading the database afterwards agrees with it.
+     */
+    public synchronized void revokeTenant(UUID tenantId) {
+        Set<UUID> updated = new HashSet<>(revokedTenants);
+        updated.add(tenantId);
+        revokedTenants = Set.copyOf(updated);
+        revocations++;
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval-ms:30000}",
+            initialDelayString = "${app.security.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            long revocationsBefore;
+            synchronized (this) {
+                revocationsBefore = revocations;
+            }
+            Set<UUID> users = Set.copyOf(userRepository.findInactiveUserIds());
+            Set<UUID> tenants = Set.copyOf(tenantRepository.findInactiveTenantIds());
+            synchronized (this) {
+                if (revocations != revocationsBefore) {
+                    // A tenant revoked while the query ran may be missing from its result
+                    Set<UUID> merged = new HashSet<>(tenants);
+                    merged.addAll(revokedTenants);
+                    tenants = Set.copyOf(merged);
+                }
+                revokedUsers = users;
+                revokedTenants = tenants;
+            }
+            log.debug("Revocation set refreshed: {} users, {} tenants", users.size(), tenants.size());
+        } catch (Exception e) {
+            // Keep serving the previous sets rather than failing every request
+            log.warn("Failed to refresh revocation set: {}", e.getMessage());
+        }
+    }
+}
@@ -33,6 +33,7 @@ public class AuthService {
     private final TenantRepository tenantRepository;
     private final JwtUtil jwtUtil;
     private final FeatureService featureService;
+    private final EntitlementRegistry entitlementRegistry;
     private final PasswordEncoder passwordEncoder;
 
 
@@ -55,7 +56,8 @@ public class AuthService {
 
         // Generate new tokens
         String newAccessToken = jwtUtil.generateAccessToken(
-                user.getId(), user.getEmail(), user.getTenant().getId(), user.getRole().name());
+                user.getId(), user.getEmail(), user.getTenant().getId(), user.getRole().name(),
+                entitlementRegistry.issue(user.getTenant().getId()));
         String newRefreshToken = jwtUtil.generateRefreshToken(user.getId());
 
         // Update refresh token
@@ -118,7 +120,8 @@ public class AuthService {
 
         // Generate tokens
         String accessToken = jwtUtil.generateAccessToken(
-                user.getId(), user.getEmail(), user.getTenant().getId(), user.getRole().name());
+                user.getId(), user.getEmail(), user.getTenant().getId(), user.getRole().name(),
+                entitlementRegistry.issue(user.getTenant().getId()));
         String refreshToken = jwtUtil.generateRefreshToken(user.getId());
 
         // Save refresh token
@@ -163,7 +166,8 @@ public class AuthService {
 
         // Generate tokens
         String accessToken = jwtUtil.generateAccessToken(
-                user.getId(), user.getEmail(), user.getTenant().getId(), user.getRole().name());
+                user.getId(), user.getEmail(), user.getTenant().getId(), user.getRole().name(),
+                entitlementRegistry.issue(user.getTenant().getId()));
         String refreshToken = jwtUtil.generateRefreshToken(user.getId());
 
         // Save refresh token
@@ -0,0 +1,230 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.entity.Bill;
+import com.restaurant.billing.entity.Order;
+import com.restaurant.billing.entity.OrderEvent;
+import com.restaurant.billing.event.OrderCompletedEvent;
+import com.restaurant.billing.repository.BillRepository;
+import com.restaurant.billing.repository.OrderEventRepository;
+import com.restaurant.billing.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Materializes bills for completed orders from the {@code order_events} outbox.
+ * Order creation only records the event; a bounded pool of workers claims pending
+ * events in batches (FOR UPDATE SKIP LOCKED, so several nodes can drain concurrently)
+ * and inserts the bills outside the order transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BillOutboxProcessor {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderRepository orderRepository;
+    private final BillRepository billRepository;
+    private final BillReadyNotifier billReadyNotifier;
+    private final DashboardCounterService dashboardCounterService;
+    private final SalesRollupService salesRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutorBuilder executorBuilder;
+
+    @Value("${app.billing.outbox.workers:2}")
+    private int workers;
+
+    @Value("${app.billing.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.billing.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    private ThreadPoolTaskExecutor executor;
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(workers);
+        executor = executorBuilder
+                .corePoolSize(workers)
+                .maxPoolSize(workers)
+                .queueCapacity(workers)
+                .threadNamePrefix("bill-outbox-")
+                .build();
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCompleted(OrderCompletedEvent event) {
+        dispatch();
+    }
+
+    @Scheduled(fixedDelayString = "${app.billing.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        dispatch();
+    }
+
+    private void dispatch() {
+        if (!permits.tryAcquire()) {
+            return; // every worker is already draining
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            permits.release();
+        }
+    }
+
+    private void drain() {
+        try {
+            int processed;
+            do {
+                processed = processBatch();
+                if (processed == batchSize) {
+                    dispatch(); // backlog remains, let another worker help
+                }
+            } while (processed == batchSize);
+        } catch (Exception e) {
+            log.error("Bill outbox drain failed", e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private int processBatch() {
+        List<UUID> claimedIds = new ArrayList<>();
+        List<UUID> orderIds = new ArrayList<>();
+        try {
+            Integer claimed = transactionTemplate.execute(status -> {
+                List<OrderEvent> events = orderEventRepository.claimPending(batchSize);
+                events.forEach(event -> claimedIds.add(event.getId()));
+                orderIds.addAll(materializeBills(events));
+                return events.size();
+            });
+            billReadyNotifier.fire(orderIds);
+            return claimed != null ? claimed : 0;
+        } catch (Exception e) {
+            log.warn("Bill batch of {} events failed, retrying one by one: {}", claimedIds.size(), e.getMessage());
+            claimedIds.forEach(this::processSingle);
+            return claimedIds.size();
+        }
+    }
+
+    private void processSingle(UUID eventId) {
+        try {
+            List<UUID> orderIds = transactionTemplate.execute(status ->
+                    orderEventRepository.claimById(eventId)
+                            .map(event -> materializeBills(List.of(event)))
+                            .orElse(List.of()));
+            billReadyNotifier.fire(orderIds);
+        } catch (Exception e) {
+            log.error("Failed to generate bill for outbox event: {}", eventId, e);
+            recordFailedAttempt(eventId, e);
+        }
+    }
+
+    private List<UUID> materializeBills(List<OrderEvent> events) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+
+        Set<UUID> orderIds = events.stream()
+                .map(OrderEvent::getOrderId)
+                .collect(Collectors.toSet());
+        Map<UUID, Order> orders = orderRepository.findAllById(orderIds)
+                .stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        Set<UUID> billedOrderIds = billRepository.findByOrderIdIn(orderIds)
+                .stream()
+                .map(bill -> bill.getOrder().getId())
+                .collect(Collectors.toCollection(HashSet::new));
+
+        List<Bill> bills = new ArrayList<>();
+        List<UUID> completed = new ArrayList<>();
+        for (OrderEvent event : events) {
+            Order order = orders.get(event.getOrderId());
+            if (order == null) {
+                throw new IllegalStateException("Order not found for outbox event: " + event.getId());
+            }
+            if (billedOrderIds.add(order.getId())) {
+                bills.add(buildBill(order));
+            } else {
+                log.info("Bill already exists for order: {}", order.getId());
+            }
+
+            event.setStatus(OrderEvent.EventStatus.PROCESSED);
+            event.setAttempts(event.getAttempts() + 1);
+            event.setProcessedAt(LocalDateTime.now());
+            completed.add(order.getId());
+        }
+
+        billRepository.saveAllAndFlush(bills);
+        salesRollupService.recordPaidBills(bills.stream().map(Bill::getId).collect(Collectors.toList()));
+        bills.stream()
+                .collect(Collectors.groupingBy(Bill::getTenantId, Collectors.reducing(BigDecimal.ZERO,
+                        bill -> bill.getTotalAmount() != null ? bill.getTotalAmount() : BigDecimal.ZERO,
+                        BigDecimal::add)))
+                .forEach((tenantId, amount) -> dashboardCounterService.recordBillsCreated(tenantId, 0, amount));
+        log.info("Generated {} bills from {} outbox events", bills.size(), events.size());
+        return completed;
+    }
+
+    private Bill buildBill(Order order) {
+        return Bill.builder()
+                .tenantId(order.getTenantId())
+                .order(order)
+                .subtotal(order.getSubtotal())
+                .taxAmount(order.getTaxAmount())
+                .serviceCharge(order.getServiceCharge())
+                .discountAmount(BigDecimal.ZERO)
+                .totalAmount(order.getTotalAmount())
+                .paymentMethod(Bill.PaymentMethod.CASH) // Default payment method
+                .paymentStatus(Bill.PaymentStatus.PAID)
+                .build();
+    }
+
+    private void recordFailedAttempt(UUID eventId, Exception cause) {
+        OrderEvent failed = transactionTemplate.execute(status -> {
+            OrderEvent event = orderEventRepository.findById(eventId).orElse(null);
+            if (event == null || event.getStatus() != OrderEvent.EventStatus.PENDING) {
+                return null;
+            }
+            String message = String.valueOf(cause.getMessage());
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OrderEvent.EventStatus.FAILED);
+            }
+            return event;
+        });
+
+        if (failed != null && failed.getStatus() == OrderEvent.EventStatus.FAILED) {
+            billReadyNotifier.fire(List.of(failed.getOrderId()));
+        }
+    }
+}
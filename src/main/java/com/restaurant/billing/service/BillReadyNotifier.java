@@ -0,0 +1,40 @@
+package com.restaurant.billing.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process registry of callers waiting for the outbox worker to materialize
+ * the bill of an order. Waiters are plain callbacks, so no thread is parked.
+ */
+@Component
+public class BillReadyNotifier {
+
+    private final Map<UUID, List<Runnable>> waiters = new ConcurrentHashMap<>();
+
+    public void register(UUID orderId, Runnable callback) {
+        waiters.computeIfAbsent(orderId, id -> new CopyOnWriteArrayList<>()).add(callback);
+    }
+
+    public void unregister(UUID orderId, Runnable callback) {
+        waiters.computeIfPresent(orderId, (id, callbacks) -> {
+            callbacks.remove(callback);
+            return callbacks.isEmpty() ? null : callbacks;
+        });
+    }
+
+    public void fire(Collection<UUID> orderIds) {
+        for (UUID orderId : orderIds) {
+            List<Runnable> callbacks = waiters.remove(orderId);
+            if (callbacks != null) {
+                callbacks.forEach(Runnable::run);
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.restaurant.billing.dto.billing.*;
 import com.restaurant.billing.entity.*;
+import com.restaurant.billing.exception.BadRequestException;
 import com.restaurant.billing.exception.ResourceNotFoundException;
 import com.restaurant.billing.repository.*;
 import com.restaurant.billing.security.TenantContext;
@@ -18,6 +19,7 @@ import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.io.File;
 import java.math.BigDecimal;
@@ -25,6 +27,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -36,6 +39,13 @@ public class BillingService {
     private final OrderRepository orderRepository;
     private final TenantRepository tenantRepository;
     private final UserRepository userRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final BillReadyNotifier billReadyNotifier;
+    private final DashboardCounterService dashboardCounterService;
+    private final SalesRollupService salesRollupService;
+
+    @Value("${app.billing.outbox.max-wait-ms:30000}")
+    private long maxBillWaitMs;
 
     @Value("${app.storage.local.invoices}")
     private String invoicesPath;
@@ -71,37 +81,122 @@ public class BillingService {
                 .build();
 
         Bill saved = billRepository.save(bill);
+        dashboardCounterService.recordBillsCreated(tenantId, 1, saved.getTotalAmount());
 
         // Update order status
+        Order.OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(Order.OrderStatus.COMPLETED);
         orderRepository.save(order);
+        dashboardCounterService.recordOrderStatusChange(tenantId, previousStatus, Order.OrderStatus.COMPLETED);
 
         return BillDto.fromEntity(saved);
     }
 
     @Transactional(readOnly = true)
     public BillDto getBillById(UUID id) {
-        Bill bill = billRepository.findById(id)
+        Bill bill = billRepository.findWithOrderByIdAndTenantId(id, TenantContext.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Bill not found"));
         return BillDto.fromEntity(bill);
     }
 
+    public BillStatusDto getBillStatus(UUID tenantId, UUID orderId) {
+        Bill bill = billRepository.findWithOrderByOrderIdAndTenantId(orderId, tenantId).orElse(null);
+        if (bill != null) {
+            return BillStatusDto.builder()
+                    .orderId(orderId)
+                    .status(BillStatusDto.Status.READY.name())
+                    .bill(BillDto.fromEntity(bill))
+                    .build();
+        }
+
+        OrderEvent event = orderEventRepository
+                .findFirstByOrderIdAndTenantIdAndEventTypeOrderByCreatedAtDesc(
+                        orderId, tenantId, OrderEvent.EventType.ORDER_COMPLETED)
+                .orElseThrow(() -> new ResourceNotFoundException("No bill found for order"));
+
+        BillStatusDto.Status status = event.getStatus() == OrderEvent.EventStatus.PENDING
+                ? BillStatusDto.Status.PENDING
+                : BillStatusDto.Status.FAILED;
+        return BillStatusDto.builder()
+                .orderId(orderId)
+                .status(status.name())
+                .build();
+    }
+
+    public DeferredResult<BillStatusDto> awaitBillStatus(UUID tenantId, UUID orderId, long waitMs) {
+        long timeout = Math.min(waitMs, maxBillWaitMs);
+        DeferredResult<BillStatusDto> result = new DeferredResult<>(Math.max(timeout, 1L));
+
+        BillStatusDto current = getBillStatus(tenantId, orderId);
+        if (timeout <= 0 || !isPending(current)) {
+            result.setResult(current);
+            return result;
+        }
+
+        Runnable callback = () -> completeWithStatus(result, tenantId, orderId);
+        billReadyNotifier.register(orderId, callback);
+        result.onCompletion(() -> billReadyNotifier.unregister(orderId, callback));
+        result.onTimeout(() -> completeWithStatus(result, tenantId, orderId));
+
+        // The worker may have finished between the first check and registration
+        BillStatusDto recheck = getBillStatus(tenantId, orderId);
+        if (!isPending(recheck)) {
+            result.setResult(recheck);
+        }
+        return result;
+    }
+
+    private void completeWithStatus(DeferredResult<BillStatusDto> result, UUID tenantId, UUID orderId) {
+        try {
+            result.setResult(getBillStatus(tenantId, orderId));
+        } catch (Exception e) {
+            result.setErrorResult(e);
+        }
+    }
+
+    private boolean isPending(BillStatusDto status) {
+        return BillStatusDto.Status.PENDING.name().equals(status.getStatus());
+    }
+
     @Transactional
     public BillDto recordPayment(UUID billId, PaymentRequest request) {
-        Bill bill = billRepository.findById(billId)
+        Bill bill = billRepository.lockWithOrderByIdAndTenantId(billId, TenantContext.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Bill not found"));
 
+        Bill.PaymentStatus previousStatus = bill.getPaymentStatus();
         bill.setPaidAmount(request.getAmount());
         bill.setChangeAmount(request.getAmount().subtract(bill.getTotalAmount()));
         bill.setPaymentStatus(Bill.PaymentStatus.PAID);
         bill.setPaymentMethod(Bill.PaymentMethod.valueOf(request.getPaymentMethod()));
 
-        Bill updated = billRepository.save(bill);
+        Bill updated = billRepository.saveAndFlush(bill);
+        dashboardCounterService.recordPaymentStatusChange(
+                updated.getTenantId(), previousStatus, Bill.PaymentStatus.PAID);
+        if (previousStatus != Bill.PaymentStatus.PAID) {
+            salesRollupService.recordPaidBills(List.of(updated.getId()));
+        }
+        return BillDto.fromEntity(updated);
+    }
+
+    @Transactional
+    public BillDto refundBill(UUID billId) {
+        Bill bill = billRepository.lockWithOrderByIdAndTenantId(billId, TenantContext.getTenantId())
+                .orElseThrow(() -> new ResourceNotFoundException("Bill not found"));
+        if (bill.getPaymentStatus() != Bill.PaymentStatus.PAID) {
+            throw new BadRequestException("Only paid bills can be refunded");
+        }
+
+        bill.setPaymentStatus(Bill.PaymentStatus.REFUNDED);
+        Bill updated = billRepository.saveAndFlush(bill);
+        dashboardCounterService.recordPaymentStatusChange(
+                updated.getTenantId(), Bill.PaymentStatus.PAID, Bill.PaymentStatus.REFUNDED);
+        salesRollupService.recordRefundedBills(List.of(updated.getId()));
         return BillDto.fromEntity(updated);
     }
 
     public Resource generateInvoicePdf(UUID billId) {
-        Bill bill = billRepository.findById(billId)
+        // Order, tenant and line items are fetched up front; this method runs outside a transaction
+        Bill bill = billRepository.findInvoiceViewByIdAndTenantId(billId, TenantContext.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Bill not found"));
 
         try {
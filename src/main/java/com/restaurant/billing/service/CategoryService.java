@@ -1,16 +1,17 @@
 package com.restaurant.billing.service;
 
+import com.restaurant.billing.config.CacheConfig;
 import com.restaurant.billing.dto.menu.CategoryDto;
 import com.restaurant.billing.dto.menu.CreateCategoryRequest;
 import com.restaurant.billing.dto.menu.UpdateCategoryRequest;
 import com.restaurant.billing.entity.Category;
-import com.restaurant.billing.entity.User;
 import com.restaurant.billing.exception.ResourceNotFoundException;
 import com.restaurant.billing.exception.UnauthorizedException;
 import com.restaurant.billing.repository.CategoryRepository;
-import com.restaurant.billing.repository.UserRepository;
+import com.restaurant.billing.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,12 +25,11 @@ import java.util.stream.Collectors;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
-    private final UserRepository userRepository;
+    private final MenuSnapshotService menuSnapshotService;
 
     @Transactional(readOnly = true)
-    public List<CategoryDto> getAllCategories(String userEmail, Boolean activeOnly) {
-        User user = getUserByEmail(userEmail);
-        UUID tenantId = user.getTenant().getId();  // FIXED: Access tenant ID through relationship
+    public List<CategoryDto> getAllCategories(Boolean activeOnly) {
+        UUID tenantId = TenantContext.getTenantId();
 
         List<Category> categories;
         if (activeOnly) {
@@ -45,20 +45,19 @@ public class CategoryService {
     }
 
     @Transactional(readOnly = true)
-    public CategoryDto getCategoryById(UUID id, String userEmail) {
-        User user = getUserByEmail(userEmail);
+    public CategoryDto getCategoryById(UUID id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
 
-        validateTenantAccess(category, user.getTenant().getId());  // FIXED
+        validateTenantAccess(category, TenantContext.getTenantId());
 
         return CategoryDto.fromEntity(category);
     }
 
+    @CacheEvict(value = CacheConfig.CATEGORIES, keyGenerator = "tenantAwareKeyGenerator")
     @Transactional
-    public CategoryDto createCategory(CreateCategoryRequest request, String userEmail) {
-        User user = getUserByEmail(userEmail);
-        UUID tenantId = user.getTenant().getId();  // FIXED
+    public CategoryDto createCategory(CreateCategoryRequest request) {
+        UUID tenantId = TenantContext.getTenantId();
 
         // If displayOrder is not provided, set it to max + 1
         Integer displayOrder = request.getDisplayOrder();
@@ -75,18 +74,19 @@ public class CategoryService {
                 .build();
 
         Category savedCategory = categoryRepository.save(category);
+        menuSnapshotService.bump(tenantId);
         log.info("Created category {} for tenant {}", savedCategory.getId(), tenantId);
 
         return CategoryDto.fromEntity(savedCategory);
     }
 
+    @CacheEvict(value = CacheConfig.CATEGORIES, keyGenerator = "tenantAwareKeyGenerator")
     @Transactional
-    public CategoryDto updateCategory(UUID id, UpdateCategoryRequest request, String userEmail) {
-        User user = getUserByEmail(userEmail);
+    public CategoryDto updateCategory(UUID id, UpdateCategoryRequest request) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
 
-        validateTenantAccess(category, user.getTenant().getId());  // FIXED
+        validateTenantAccess(category, TenantContext.getTenantId());
 
         // Update fields
         category.setName(request.getName());
@@ -100,47 +100,45 @@ public class CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
-        log.info("Updated category {} for tenant {}", id, user.getTenant().getId());  // FIXED
+        menuSnapshotService.bump(category.getTenantId());
+        log.info("Updated category {} for tenant {}", id, category.getTenantId());
 
         return CategoryDto.fromEntity(updatedCategory);
     }
 
+    @CacheEvict(value = CacheConfig.CATEGORIES, keyGenerator = "tenantAwareKeyGenerator")
     @Transactional
-    public void deleteCategory(UUID id, String userEmail) {
-        User user = getUserByEmail(userEmail);
+    public void deleteCategory(UUID id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
 
-        validateTenantAccess(category, user.getTenant().getId());  // FIXED
+        validateTenantAccess(category, TenantContext.getTenantId());
 
         // Soft delete
         category.setIsActive(false);
         categoryRepository.save(category);
+        menuSnapshotService.bump(category.getTenantId());
 
-        log.info("Deleted (soft) category {} for tenant {}", id, user.getTenant().getId());  // FIXED
+        log.info("Deleted (soft) category {} for tenant {}", id, category.getTenantId());
     }
 
+    @CacheEvict(value = CacheConfig.CATEGORIES, keyGenerator = "tenantAwareKeyGenerator")
     @Transactional
-    public CategoryDto updateDisplayOrder(UUID id, Integer displayOrder, String userEmail) {
-        User user = getUserByEmail(userEmail);
+    public CategoryDto updateDisplayOrder(UUID id, Integer displayOrder) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
 
-        validateTenantAccess(category, user.getTenant().getId());  // FIXED
+        validateTenantAccess(category, TenantContext.getTenantId());
 
         category.setDisplayOrder(displayOrder);
         Category updatedCategory = categoryRepository.save(category);
+        menuSnapshotService.bump(category.getTenantId());
 
         log.info("Updated display order for category {} to {}", id, displayOrder);
 
         return CategoryDto.fromEntity(updatedCategory);
     }
 
-    private User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email));
-    }
-
     private void validateTenantAccess(Category category, UUID tenantId) {
         if (!category.getTenantId().equals(tenantId)) {
             throw new UnauthorizedException("Access denied to this category");
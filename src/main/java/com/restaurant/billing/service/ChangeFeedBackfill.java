@@ -0,0 +1,108 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.entity.Category;
+import com.restaurant.billing.entity.ChangeTracked;
+import com.restaurant.billing.entity.MenuItem;
+import com.restaurant.billing.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Seeds the change log with the current state of rows that have never been logged,
+ * e.g. rows written before the feed existed, so a device paging from the start of
+ * the feed still receives them. Runs once per database rather than on every node
+ * start, and also drops the {@code change_seq} columns the feed replaced.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedBackfill {
+
+    private static final int BATCH_SIZE = 500;
+    private static final Map<Class<? extends ChangeTracked>, String> TRACKED_TYPES = Map.of(
+            Category.class, Category.CHANGE_ENTITY_TYPE,
+            MenuItem.class, MenuItem.CHANGE_ENTITY_TYPE,
+            Order.class, Order.CHANGE_ENTITY_TYPE);
+
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeFeedService changeFeedService;
+    private final MaintenanceTaskService maintenanceTaskService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.sync.change-feed-backfill:true}")
+    private boolean backfillEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfillEnabled) {
+            return;
+        }
+        try {
+            maintenanceTaskService.runOnce("change-feed-seed", () -> TRACKED_TYPES.forEach(this::seed));
+            maintenanceTaskService.runOnce("drop-legacy-change-seq", this::dropLegacyColumns);
+        } catch (Exception e) {
+            log.error("Failed to seed change log", e);
+        }
+    }
+
+    private void seed(Class<? extends ChangeTracked> type, String entityType) {
+        int seeded = 0;
+        UUID after = new UUID(0L, 0L);
+        List<UUID> batch;
+        do {
+            UUID from = after;
+            batch = transactionTemplate.execute(status -> seedBatch(type, entityType, from));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            seeded += batch.size();
+            after = batch.get(batch.size() - 1);
+        } while (batch.size() == BATCH_SIZE);
+        if (seeded > 0) {
+            log.info("Seeded change log with {} {} rows", seeded, type.getSimpleName());
+        }
+    }
+
+    /**
+     * Seeds the next page of never-logged rows after {@code after} and returns their ids.
+     * Seed entries have ids derived from the row, so a re-run after a failure skips rows
+     * it already wrote instead of logging them twice.
+     */
+    private List<UUID> seedBatch(Class<? extends ChangeTracked> type, String entityType, UUID after) {
+        String entityName = entityManager.getMetamodel().entity(type).getName();
+        List<? extends ChangeTracked> rows = entityManager.createQuery(
+                        "SELECT e FROM " + entityName + " e WHERE e.id > :after AND NOT EXISTS (" +
+                        "SELECT 1 FROM ChangeLogEntry c WHERE c.tenantId = e.tenantId " +
+                        "AND c.entityType = :entityType AND c.entityId = e.id) " +
+                        "ORDER BY e.id", type)
+                .setParameter("after", after)
+                .setParameter("entityType", entityType)
+                .setMaxResults(BATCH_SIZE)
+                .getResultList();
+        for (ChangeTracked row : rows) {
+            changeFeedService.seed(row);
+        }
+        return rows.stream().map(ChangeTracked::getId).toList();
+    }
+
+    private void dropLegacyColumns() {
+        // Indexes on the columns go with them
+        jdbcTemplate.execute("ALTER TABLE orders DROP COLUMN IF EXISTS change_seq");
+        jdbcTemplate.execute("ALTER TABLE menu_items DROP COLUMN IF EXISTS change_seq");
+    }
+}
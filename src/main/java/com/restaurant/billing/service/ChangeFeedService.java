@@ -0,0 +1,181 @@
+package com.restaurant.billing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.billing.entity.ChangeTracked;
+import com.restaurant.billing.event.ChangeFeedAdvancedEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Appends entries to the per-tenant {@code change_log}. Called from entity callbacks
+ * while Hibernate flushes, so entries are collected per transaction and written
+ * through JDBC on the transaction's connection once Hibernate has run its final
+ * flush, immediately before the database commit. Sequence values are taken at that
+ * point, so the tenant's counter row is only locked for the last moment of each
+ * writing transaction rather than for all of it.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedService {
+
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_log (id, tenant_id, seq, entity_type, entity_id, operation, device_id, " +
+            "version, payload, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?) " +
+            "ON CONFLICT (id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeSequenceService changeSequenceService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Attributes the changes this transaction writes to {@code deviceId}, which then
+     * does not receive them back in its own delta reads. Writes made without calling
+     * this, e.g. through the REST API, are attributed to no device and reach every one.
+     */
+    public void recordWritesFrom(String deviceId) {
+        pending().deviceId = deviceId;
+    }
+
+    public void append(ChangeTracked entity, String operation) {
+        enqueue(entity, operation, UUID.randomUUID());
+    }
+
+    /**
+     * Logs the entity's current state under an id derived from the entity itself, so
+     * seeding the same row twice writes a single entry.
+     */
+    public void seed(ChangeTracked entity) {
+        UUID id = UUID.nameUUIDFromBytes(("seed:" + entity.getChangeEntityType() + ":" + entity.getId())
+                .getBytes(StandardCharsets.UTF_8));
+        enqueue(entity, entity.isChangeDeleted() ? DELETE : UPDATE, id);
+    }
+
+    private void enqueue(ChangeTracked entity, String operation, UUID id) {
+        PendingChanges pending = pending();
+        PendingChange change = new PendingChange(id, entity.getTenantId(), entity.getChangeEntityType(),
+                entity.getId(), operation, pending.deviceId, entity.getVersion(), toJson(entity));
+        if (pending.written) {
+            // Not expected once the final flush has run; the commit is imminent either way
+            write(List.of(change));
+        } else {
+            pending.changes.add(change);
+        }
+    }
+
+    private PendingChanges pending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Change log entries must be appended inside the writing transaction");
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            // Runs after the flush at commit, which is when most entity callbacks fire
+            EventSource session = entityManager.unwrap(EventSource.class);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) pending);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Writes the changes tenant by tenant, in a fixed order so two multi-tenant
+     * transactions cannot deadlock on the counter rows.
+     */
+    private void write(List<PendingChange> changes) {
+        Map<UUID, List<PendingChange>> byTenant = new TreeMap<>();
+        for (PendingChange change : changes) {
+            byTenant.computeIfAbsent(change.tenantId, id -> new ArrayList<>()).add(change);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        byTenant.forEach((tenantId, tenantChanges) -> {
+            long high = changeSequenceService.reserve(tenantId, tenantChanges.size());
+            long seq = high - tenantChanges.size() + 1;
+            List<Object[]> rows = new ArrayList<>(tenantChanges.size());
+            for (PendingChange change : tenantChanges) {
+                rows.add(new Object[] {change.id, tenantId, seq++, change.entityType, change.entityId,
+                        change.operation, change.deviceId, change.version, change.payload, now});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            eventPublisher.publishEvent(new ChangeFeedAdvancedEvent(tenantId, high));
+        });
+    }
+
+    private String toJson(ChangeTracked entity) {
+        try {
+            return objectMapper.writeValueAsString(entity.toChangePayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize change payload for " + entity.getId(), e);
+        }
+    }
+
+    private final class PendingChanges
+            implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+        private final List<PendingChange> changes = new ArrayList<>();
+        private String deviceId;
+        private boolean written;
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            written = true;
+            if (!changes.isEmpty()) {
+                write(changes);
+            }
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeedService.this);
+        }
+    }
+
+    private static final class PendingChange {
+        private final UUID id;
+        private final UUID tenantId;
+        private final String entityType;
+        private final UUID entityId;
+        private final String operation;
+        private final String deviceId;
+        private final Long version;
+        private final String payload;
+
+        private PendingChange(UUID id, UUID tenantId, String entityType, UUID entityId, String operation,
+                              String deviceId, Long version, String payload) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.entityType = entityType;
+            this.entityId = entityId;
+            this.operation = operation;
+            this.deviceId = deviceId;
+            this.version = version;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.event.ChangeFeedAdvancedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process registry of long-polling sync requests, woken when a tenant's change
+ * feed advances. Waiters are callbacks run on a small pool, so parked requests hold
+ * neither a request thread nor a connection, and a burst of commits queues at most
+ * one run per waiter.
+ * <p>
+ * Only commits made on this node wake its waiters. With several nodes behind a load
+ * balancer, a device whose poll lands on a different node than the write sees the
+ * change when its wait expires, so {@code app.sync.long-poll.max-wait-ms} bounds that
+ * delay.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChangeNotifier {
+
+    private final ThreadPoolTaskExecutorBuilder executorBuilder;
+    private final Map<UUID, List<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    @Value("${app.sync.long-poll.notify-threads:4}")
+    private int notifyThreads;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = executorBuilder
+                .corePoolSize(notifyThreads)
+                .maxPoolSize(notifyThreads)
+                .queueCapacity(10_000)
+                .threadNamePrefix("sync-notify-")
+                .build();
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public Waiter register(UUID tenantId, Runnable onChange) {
+        Waiter waiter = new Waiter(onChange);
+        waiters.computeIfAbsent(tenantId, id -> new CopyOnWriteArrayList<>()).add(waiter);
+        return waiter;
+    }
+
+    public void unregister(UUID tenantId, Waiter waiter) {
+        waiters.computeIfPresent(tenantId, (id, tenantWaiters) -> {
+            tenantWaiters.remove(waiter);
+            return tenantWaiters.isEmpty() ? null : tenantWaiters;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChangeFeedAdvanced(ChangeFeedAdvancedEvent event) {
+        List<Waiter> tenantWaiters = waiters.get(event.getTenantId());
+        if (tenantWaiters != null) {
+            tenantWaiters.forEach(this::wake);
+        }
+    }
+
+    private void wake(Waiter waiter) {
+        if (!waiter.queued.compareAndSet(false, true)) {
+            return; // a run is already queued and will see this change
+        }
+        try {
+            executor.execute(() -> {
+                waiter.queued.set(false);
+                waiter.onChange.run();
+            });
+        } catch (TaskRejectedException e) {
+            waiter.queued.set(false);
+            log.warn("Sync notifier queue is full; waiter will be answered on timeout");
+        }
+    }
+
+    public static final class Waiter {
+        private final Runnable onChange;
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        private Waiter(Runnable onChange) {
+            this.onChange = onChange;
+        }
+    }
+}
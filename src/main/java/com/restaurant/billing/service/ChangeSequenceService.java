@@ -0,0 +1,44 @@
+package com.restaurant.billing.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Hands out the per-tenant change sequence used as the delta sync cursor.
+ * Values are reserved just before commit (see {@link ChangeFeedService}), and the
+ * counter row stays locked from there until the commit, so a tenant's writes commit
+ * in sequence order and a reader never sees a gap that fills later.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeSequenceService {
+
+    private static final String RESERVE_SQL =
+            "INSERT INTO change_sequences (tenant_id, last_seq) VALUES (?, ?) " +
+            "ON CONFLICT (tenant_id) DO UPDATE SET last_seq = change_sequences.last_seq + EXCLUDED.last_seq " +
+            "RETURNING last_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long next(UUID tenantId) {
+        return reserve(tenantId, 1);
+    }
+
+    /**
+     * Reserves {@code count} consecutive values and returns the highest one.
+     */
+    public long reserve(UUID tenantId, long count) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Change sequences must be allocated inside the writing transaction");
+        }
+        Long high = jdbcTemplate.queryForObject(RESERVE_SQL, Long.class, tenantId, count);
+        if (high == null) {
+            throw new IllegalStateException("Failed to allocate change sequence for tenant " + tenantId);
+        }
+        return high;
+    }
+}
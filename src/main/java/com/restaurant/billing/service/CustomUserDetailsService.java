@@ -1,8 +1,13 @@
 package com.restaurant.billing.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.restaurant.billing.entity.User;
 import com.restaurant.billing.repository.UserRepository;
+import com.restaurant.billing.security.TenantContext;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,7 +15,9 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -18,13 +25,47 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long principalCacheSize;
+
+    @Value("${app.security.principal-cache.ttl-seconds:60}")
+    private long principalCacheTtlSeconds;
+
+    // Emails are only unique within a tenant, so principals are keyed by both
+    private Cache<String, UserDetails> principals;
+
+    @PostConstruct
+    public void init() {
+        principals = Caffeine.newBuilder()
+                .maximumSize(principalCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(principalCacheTtlSeconds))
+                .build();
+    }
+
+    /**
+     * Resolves the user of the current request's tenant.
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        UUID tenantId = TenantContext.getTenantId();
+        if (tenantId == null) {
+            throw new UsernameNotFoundException("No tenant to resolve user in: " + email);
+        }
+        return loadUser(tenantId, email);
+    }
+
+    @Transactional(readOnly = true)
+    public UserDetails loadUser(UUID tenantId, String email) throws UsernameNotFoundException {
+        String key = tenantId + "|" + email;
+        UserDetails cached = principals.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        User user = userRepository.findByEmailAndTenantId(email, tenantId)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
-        return org.springframework.security.core.userdetails.User.builder()
+        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
                 .username(user.getEmail())
                 .password(user.getPasswordHash() != null ? user.getPasswordHash() : "")
                 .authorities(Collections.singleton(
@@ -34,5 +75,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .credentialsExpired(false)
                 .disabled(!user.getIsActive())
                 .build();
+        principals.put(key, userDetails);
+        return userDetails;
     }
-}
\ No newline at end of file
+}
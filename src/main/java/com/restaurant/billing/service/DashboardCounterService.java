@@ -0,0 +1,124 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.entity.Bill;
+import com.restaurant.billing.entity.DashboardCounter;
+import com.restaurant.billing.entity.Order;
+import com.restaurant.billing.entity.RestaurantTable;
+import com.restaurant.billing.event.DashboardCountersChangedEvent;
+import com.restaurant.billing.repository.BillRepository;
+import com.restaurant.billing.repository.DashboardCounterRepository;
+import com.restaurant.billing.repository.OrderRepository;
+import com.restaurant.billing.repository.RestaurantTableRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the per-tenant {@code dashboard_counters} row in step with order and bill
+ * writes so the dashboard reads a single row instead of scanning orders and bills.
+ * The record* methods must run inside the caller's write transaction; a row that
+ * does not exist yet is simply skipped and built from the source tables on first read.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCounterService {
+
+    public static final Set<Order.OrderStatus> ACTIVE_ORDER_STATUSES = EnumSet.of(
+            Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, Order.OrderStatus.PREPARING);
+
+    private final DashboardCounterRepository counterRepository;
+    private final OrderRepository orderRepository;
+    private final BillRepository billRepository;
+    private final RestaurantTableRepository tableRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void recordOrderStatusChange(UUID tenantId, Order.OrderStatus from, Order.OrderStatus to) {
+        long delta = (isActive(to) ? 1 : 0) - (isActive(from) ? 1 : 0);
+        if (delta != 0) {
+            counterRepository.addActiveOrders(tenantId, delta);
+            eventPublisher.publishEvent(new DashboardCountersChangedEvent(tenantId));
+        }
+    }
+
+    public void recordBillsCreated(UUID tenantId, long pendingCount, BigDecimal amount) {
+        if (pendingCount != 0) {
+            counterRepository.addPendingPayments(tenantId, pendingCount);
+        }
+        counterRepository.addSales(tenantId, LocalDate.now(), amount != null ? amount : BigDecimal.ZERO);
+        eventPublisher.publishEvent(new DashboardCountersChangedEvent(tenantId));
+    }
+
+    public void recordPaymentStatusChange(UUID tenantId, Bill.PaymentStatus from, Bill.PaymentStatus to) {
+        long delta = (to == Bill.PaymentStatus.PENDING ? 1 : 0) - (from == Bill.PaymentStatus.PENDING ? 1 : 0);
+        if (delta != 0) {
+            counterRepository.addPendingPayments(tenantId, delta);
+            eventPublisher.publishEvent(new DashboardCountersChangedEvent(tenantId));
+        }
+    }
+
+    @Transactional
+    public DashboardCounter getCounters(UUID tenantId) {
+        return counterRepository.findById(tenantId)
+                .orElseGet(() -> reconcile(tenantId));
+    }
+
+    public BigDecimal getTodaySales(DashboardCounter counter) {
+        // Sales roll over lazily: the first sale of a new day resets the stored figure
+        return LocalDate.now().equals(counter.getSalesDate()) ? counter.getTodaySales() : BigDecimal.ZERO;
+    }
+
+    /**
+     * Recomputes every counter from the source tables and overwrites the stored row.
+     */
+    @Transactional
+    public DashboardCounter reconcile(UUID tenantId) {
+        LocalDate today = LocalDate.now();
+        DashboardCounter counter = DashboardCounter.builder()
+                .tenantId(tenantId)
+                .activeOrders(orderRepository.countByTenantIdAndIsDeletedAndOrderStatusIn(
+                        tenantId, false, ACTIVE_ORDER_STATUSES))
+                .pendingPayments(billRepository.countByTenantIdAndPaymentStatus(
+                        tenantId, Bill.PaymentStatus.PENDING))
+                .tablesOccupied(tableRepository.countByTenantIdAndStatus(
+                        tenantId, RestaurantTable.TableStatus.OCCUPIED))
+                .salesDate(today)
+                .todaySales(billRepository.sumTotalAmount(
+                        tenantId, today.atStartOfDay(), today.plusDays(1).atStartOfDay()))
+                .reconciledAt(LocalDateTime.now())
+                .build();
+
+        counterRepository.upsert(counter.getTenantId(), counter.getActiveOrders(), counter.getPendingPayments(),
+                counter.getTablesOccupied(), counter.getSalesDate(), counter.getTodaySales(),
+                counter.getReconciledAt());
+        eventPublisher.publishEvent(new DashboardCountersChangedEvent(tenantId));
+        return counter;
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.reconcile-interval-ms:300000}")
+    public void reconcileAll() {
+        for (UUID tenantId : counterRepository.findAllTenantIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> reconcile(tenantId));
+            } catch (Exception e) {
+                log.warn("Failed to reconcile dashboard counters for tenant {}: {}", tenantId, e.getMessage());
+            }
+        }
+    }
+
+    private boolean isActive(Order.OrderStatus status) {
+        return status != null && ACTIVE_ORDER_STATUSES.contains(status);
+    }
+}
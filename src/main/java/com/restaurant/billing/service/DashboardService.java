@@ -1,20 +1,10 @@
 package com.restaurant.billing.service;
 
-import com.restaurant.billing.entity.Bill;
-import com.restaurant.billing.entity.Order;
-import com.restaurant.billing.entity.RestaurantTable;
-import com.restaurant.billing.repository.BillRepository;
-import com.restaurant.billing.repository.OrderRepository;
-import com.restaurant.billing.repository.RestaurantTableRepository;
+import com.restaurant.billing.entity.DashboardCounter;
 import com.restaurant.billing.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -22,99 +12,41 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DashboardService {
 
-    private final BillRepository billRepository;
-    private final OrderRepository orderRepository;
-    private final RestaurantTableRepository tableRepository;
+    private final DashboardCounterService dashboardCounterService;
 
     public Map<String, Object> getDashboardStats() {
-        UUID tenantId = TenantContext.getTenantId();
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
-
-        // Today's sales
-        BigDecimal todaySales = billRepository.getDailySales(tenantId, todayStart, todayEnd)
-                .stream()
-                .map(row -> (BigDecimal) (row[1] != null ? row[1] : BigDecimal.ZERO))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Active orders (pending, confirmed, preparing)
-        long activeOrders = orderRepository.findByTenantIdAndIsDeleted(tenantId, false)
-                .stream()
-                .filter(order -> order.getOrderStatus() == Order.OrderStatus.PENDING ||
-                               order.getOrderStatus() == Order.OrderStatus.CONFIRMED ||
-                               order.getOrderStatus() == Order.OrderStatus.PREPARING)
-                .count();
-
-        // Pending payments
-        long pendingPayments = billRepository.findByTenantId(tenantId)
-                .stream()
-                .filter(bill -> bill.getPaymentStatus() == Bill.PaymentStatus.PENDING)
-                .count();
+        return getDashboardStats(TenantContext.getTenantId());
+    }
 
-        // Tables occupied
-        long tablesOccupied = tableRepository.findAll()
-                .stream()
-                .filter(table -> table.getTenantId() != null && table.getTenantId().equals(tenantId))
-                .filter(table -> table.getStatus() == RestaurantTable.TableStatus.OCCUPIED)
-                .count();
+    public Map<String, Object> getDashboardStats(UUID tenantId) {
+        DashboardCounter counter = dashboardCounterService.getCounters(tenantId);
 
         return Map.of(
-                "todaySales", todaySales,
-                "activeOrders", activeOrders,
-                "pendingPayments", pendingPayments,
-                "tablesOccupied", tablesOccupied
+                "todaySales", dashboardCounterService.getTodaySales(counter),
+                "activeOrders", counter.getActiveOrders(),
+                "pendingPayments", counter.getPendingPayments(),
+                "tablesOccupied", counter.getTablesOccupied()
         );
     }
 
     public Map<String, Object> getTodaySales() {
-        UUID tenantId = TenantContext.getTenantId();
-        LocalDateTime todayStart = LocalDate.now().atStartOfDay();
-        LocalDateTime todayEnd = LocalDate.now().atTime(LocalTime.MAX);
-
-        BigDecimal todaySales = orderRepository.findByTenantIdAndIsDeleted(tenantId, false)
-                .stream()
-                .filter(order -> order.getCreatedAt().isAfter(todayStart) && order.getCreatedAt().isBefore(todayEnd))
-                .filter(order -> order.getOrderStatus() == Order.OrderStatus.COMPLETED)
-                .flatMap(order -> order.getItems().stream())
-                .map(item -> item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return Map.of("amount", todaySales);
+        // Same bill-based figure as todaySales in the stats above
+        DashboardCounter counter = dashboardCounterService.getCounters(TenantContext.getTenantId());
+        return Map.of("amount", dashboardCounterService.getTodaySales(counter));
     }
 
     public Map<String, Object> getActiveOrders() {
-        UUID tenantId = TenantContext.getTenantId();
-
-        long activeOrders = orderRepository.findByTenantIdAndIsDeleted(tenantId, false)
-                .stream()
-                .filter(order -> order.getOrderStatus() == Order.OrderStatus.PENDING ||
-                               order.getOrderStatus() == Order.OrderStatus.CONFIRMED ||
-                               order.getOrderStatus() == Order.OrderStatus.PREPARING)
-                .count();
-
-        return Map.of("count", activeOrders);
+        DashboardCounter counter = dashboardCounterService.getCounters(TenantContext.getTenantId());
+        return Map.of("count", counter.getActiveOrders());
     }
 
     public Map<String, Object> getPendingPayments() {
-        UUID tenantId = TenantContext.getTenantId();
-
-        long pendingPayments = billRepository.findByTenantId(tenantId)
-                .stream()
-                .filter(bill -> bill.getPaymentStatus() == Bill.PaymentStatus.PENDING)
-                .count();
-
-        return Map.of("count", pendingPayments);
+        DashboardCounter counter = dashboardCounterService.getCounters(TenantContext.getTenantId());
+        return Map.of("count", counter.getPendingPayments());
     }
 
     public Map<String, Object> getTablesOccupied() {
-        UUID tenantId = TenantContext.getTenantId();
-
-        long tablesOccupied = tableRepository.findAll()
-                .stream()
-                .filter(table -> table.getTenantId() != null && table.getTenantId().equals(tenantId))
-                .filter(table -> table.getStatus() == RestaurantTable.TableStatus.OCCUPIED)
-                .count();
-
-        return Map.of("count", tablesOccupied);
+        DashboardCounter counter = dashboardCounterService.getCounters(TenantContext.getTenantId());
+        return Map.of("count", counter.getTablesOccupied());
     }
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.event.DashboardCountersChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes dashboard counter changes to subscribed tablets over Server-Sent Events.
+ * Subscriptions are async servlet responses, so an idle connection holds no thread.
+ * Commits only mark the tenant dirty; a scheduled flush reads the counters once per
+ * tenant and sends each subscriber the fields that changed since its last push.
+ * <p>
+ * Reads and sends run on a pool of their own, never on the shared scheduler
+ * thread, and each subscriber has at most one send in flight: a slow client only
+ * delays its own updates, not other tenants or the application's scheduled jobs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStreamService {
+
+    private final DashboardService dashboardService;
+    private final ThreadPoolTaskExecutorBuilder executorBuilder;
+
+    private final Map<UUID, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<UUID> dirtyTenants = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pushingTenants = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.dashboard.stream.send-threads:4}")
+    private int sendThreads;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        executor = executorBuilder
+                .corePoolSize(sendThreads)
+                .maxPoolSize(sendThreads)
+                .queueCapacity(10_000)
+                .threadNamePrefix("dashboard-stream-")
+                .build();
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public SseEmitter subscribe(UUID tenantId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.computeIfAbsent(tenantId, id -> new CopyOnWriteArrayList<>()).add(subscriber);
+
+        Runnable remove = () -> unsubscribe(tenantId, subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        Map<String, Object> snapshot = dashboardService.getDashboardStats(tenantId);
+        if (subscriber.send("snapshot", snapshot)) {
+            subscriber.lastSent = new HashMap<>(snapshot);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCountersChanged(DashboardCountersChangedEvent event) {
+        if (subscribers.containsKey(event.getTenantId())) {
+            dirtyTenants.add(event.getTenantId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.coalesce-interval-ms:1000}")
+    public void flush() {
+        for (Iterator<UUID> it = dirtyTenants.iterator(); it.hasNext(); ) {
+            UUID tenantId = it.next();
+            if (!pushingTenants.add(tenantId)) {
+                continue; // the previous push is still reading; stays dirty for the next flush
+            }
+            it.remove();
+            try {
+                executor.execute(() -> {
+                    try {
+                        pushTenant(tenantId);
+                    } finally {
+                        pushingTenants.remove(tenantId);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                pushingTenants.remove(tenantId);
+                dirtyTenants.add(tenantId);
+                log.warn("Dashboard stream queue is full; tenant {} will be pushed on a later flush", tenantId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.dashboard.stream.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach((tenantId, tenantSubscribers) -> {
+            for (Subscriber subscriber : tenantSubscribers) {
+                // A subscriber with a send in flight is evidently still connected
+                sendAsync(subscriber, () -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        subscriber.emitter.completeWithError(e);
+                        unsubscribe(tenantId, subscriber);
+                    }
+                });
+            }
+            // Also catches changes committed on other nodes
+            dirtyTenants.add(tenantId);
+        });
+    }
+
+    private void pushTenant(UUID tenantId) {
+        List<Subscriber> tenantSubscribers = subscribers.get(tenantId);
+        if (tenantSubscribers == null || tenantSubscribers.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, Object> current = dashboardService.getDashboardStats(tenantId);
+            for (Subscriber subscriber : tenantSubscribers) {
+                if (!sendAsync(subscriber, () -> pushDelta(tenantId, subscriber, current))) {
+                    dirtyTenants.add(tenantId);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to push dashboard update for tenant {}: {}", tenantId, e.getMessage());
+        }
+    }
+
+    /**
+     * Runs the send on the stream pool unless the subscriber already has one in flight.
+     */
+    private boolean sendAsync(Subscriber subscriber, Runnable send) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    send.run();
+                } finally {
+                    subscriber.sending.set(false);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            subscriber.sending.set(false);
+            return false;
+        }
+    }
+
+    private void pushDelta(UUID tenantId, Subscriber subscriber, Map<String, Object> current) {
+        Map<String, Object> delta = new HashMap<>();
+        current.forEach((key, value) -> {
+            if (!Objects.equals(value, subscriber.lastSent.get(key))) {
+                delta.put(key, value);
+            }
+        });
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (subscriber.send("delta", delta)) {
+            subscriber.lastSent = new HashMap<>(current);
+        } else {
+            unsubscribe(tenantId, subscriber);
+        }
+    }
+
+    private void unsubscribe(UUID tenantId, Subscriber subscriber) {
+        subscribers.computeIfPresent(tenantId, (id, tenantSubscribers) -> {
+            tenantSubscribers.remove(subscriber);
+            return tenantSubscribers.isEmpty() ? null : tenantSubscribers;
+        });
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile Map<String, Object> lastSent = Map.of();
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private boolean send(String name, Map<String, Object> data) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.restaurant.billing.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out human-readable, per-tenant, per-day document numbers such as
+ * {@code ORD20261018-0042}. Numbers come from blocks reserved in the
+ * {@code document_sequences} hi/lo table, so the common case is an in-memory
+ * increment and blocks never overlap across nodes.
+ * <p>
+ * Blocks are reserved over a small pool of their own. Numbers are assigned while the
+ * caller already holds a connection from the main pool, so borrowing a second one
+ * there could starve when every block empties at once, as at day rollover.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DocumentNumberAllocator {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String RESERVE_BLOCK_SQL =
+            "INSERT INTO document_sequences (sequence_key, tenant_id, sequence_type, sequence_date, high_value) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (sequence_key) DO UPDATE " +
+            "SET high_value = document_sequences.high_value + EXCLUDED.high_value " +
+            "RETURNING high_value";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @Value("${app.numbering.block-size:50}")
+    private int blockSize;
+
+    @Value("${app.numbering.pool-size:2}")
+    private int poolSize;
+
+    private HikariDataSource dataSource;
+
+    @PostConstruct
+    public void init() {
+        dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("document-numbers");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setMinimumIdle(1);
+        dataSource.setAutoCommit(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dataSource.close();
+    }
+
+    public enum DocumentType {
+        ORDER("ORD"), BILL("BILL"), BOOKING("BK");
+
+        private final String prefix;
+
+        DocumentType(String prefix) {
+            this.prefix = prefix;
+        }
+    }
+
+    public String next(UUID tenantId, DocumentType type) {
+        LocalDate today = LocalDate.now();
+        String key = tenantId + ":" + type.name() + ":" + today.format(DATE_FORMAT);
+
+        Block block = blocks.get(key);
+        if (block == null) {
+            blocks.values().removeIf(existing -> !existing.date.equals(today));
+            block = blocks.computeIfAbsent(key, k -> new Block(today));
+        }
+
+        long value;
+        // A lock rather than synchronized, so a virtual thread reserving a block does not pin its carrier
+        block.lock.lock();
+        try {
+            if (block.next > block.limit) {
+                long high = reserveBlock(key, tenantId, type, today);
+                block.next = high - blockSize + 1;
+                block.limit = high;
+            }
+            value = block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+
+        return String.format("%s%s-%04d", type.prefix, today.format(DATE_FORMAT), value);
+    }
+
+    /**
+     * Reserves the next block on an auto-commit connection from the allocator's pool,
+     * so the reservation is durable even if the caller's transaction rolls back;
+     * otherwise another node could be handed the same range.
+     */
+    private long reserveBlock(String key, UUID tenantId, DocumentType type, LocalDate date) {
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement statement = connection.prepareStatement(RESERVE_BLOCK_SQL)) {
+                statement.setString(1, key);
+                statement.setObject(2, tenantId);
+                statement.setString(3, type.name());
+                statement.setDate(4, Date.valueOf(date));
+                statement.setLong(5, blockSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    long high = resultSet.getLong(1);
+                    log.debug("Reserved {} numbers up to {} for {}", blockSize, high, key);
+                    return high;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to reserve document numbers for " + key, e);
+        }
+    }
+
+    private static final class Block {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LocalDate date;
+        private long next = 1;
+        private long limit = 0;
+
+        private Block(LocalDate date) {
+            this.date = date;
+        }
+    }
+}
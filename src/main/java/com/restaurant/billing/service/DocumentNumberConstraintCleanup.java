@@ -0,0 +1,76 @@
+package com.restaurant.billing.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops the unique constraints that once made order, bill and booking numbers unique
+ * across all tenants. Numbers now restart per tenant and day, so on databases created
+ * before that change the second tenant to take a number would be rejected;
+ * {@code ddl-auto: update} adds the per-tenant constraints but never removes the old
+ * ones. Their names were generated by Hibernate, so they are found in the catalog as
+ * unique constraints or indexes covering exactly the number column.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentNumberConstraintCleanup {
+
+    private static final Map<String, String> NUMBER_COLUMNS = Map.of(
+            "orders", "order_number",
+            "bills", "bill_number",
+            "bookings", "booking_number");
+
+    private static final String SINGLE_COLUMN_CONSTRAINTS_SQL =
+            "SELECT c.conname FROM pg_constraint c " +
+            "JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1] " +
+            "WHERE c.conrelid = to_regclass(?) AND c.contype = 'u' " +
+            "AND array_length(c.conkey, 1) = 1 AND a.attname = ?";
+
+    // Unique indexes created without a constraint, e.g. by hand or an older schema tool
+    private static final String SINGLE_COLUMN_INDEXES_SQL =
+            "SELECT i.relname FROM pg_index x " +
+            "JOIN pg_class i ON i.oid = x.indexrelid " +
+            "JOIN pg_attribute a ON a.attrelid = x.indrelid AND a.attnum = x.indkey[0] " +
+            "WHERE x.indrelid = to_regclass(?) AND x.indisunique AND NOT x.indisprimary " +
+            "AND x.indnatts = 1 AND a.attname = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = x.indexrelid)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MaintenanceTaskService maintenanceTaskService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cleanup() {
+        try {
+            maintenanceTaskService.runOnce("drop-global-document-number-constraints",
+                    () -> NUMBER_COLUMNS.forEach(this::dropSingleColumnUniques));
+        } catch (Exception e) {
+            log.error("Failed to drop global document number constraints", e);
+        }
+    }
+
+    private void dropSingleColumnUniques(String table, String column) {
+        List<String> constraints = jdbcTemplate.queryForList(
+                SINGLE_COLUMN_CONSTRAINTS_SQL, String.class, table, column);
+        for (String constraint : constraints) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT IF EXISTS " + quote(constraint));
+            log.info("Dropped unique constraint {} on {}.{}", constraint, table, column);
+        }
+        List<String> indexes = jdbcTemplate.queryForList(SINGLE_COLUMN_INDEXES_SQL, String.class, table, column);
+        for (String index : indexes) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + quote(index));
+            log.info("Dropped unique index {} on {}.{}", index, table, column);
+        }
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,206 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.event.EntitlementsChangedEvent;
+import com.restaurant.billing.repository.FeatureCatalogRepository;
+import com.restaurant.billing.repository.TenantFeatureRepository;
+import com.restaurant.billing.repository.TenantRepository;
+import com.restaurant.billing.security.TokenEntitlements;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-tenant feature entitlements held as bitsets, so a feature gate is one map
+ * lookup and a bit test. Each feature owns a stable {@code bit_index} in the catalog,
+ * which lets access tokens carry the same bitset; a per-tenant entitlement version,
+ * bumped by {@link #markChanged}, tells a gate when a token's bits are out of date.
+ * <p>
+ * Cached bits and versions are dropped when {@link EntitlementsChangedEvent} commits
+ * and reloaded on the next check. Entries also expire after
+ * {@code app.features.entitlement-ttl-ms}, which bounds staleness for changes made
+ * on other nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntitlementRegistry {
+
+    private final TenantFeatureRepository tenantFeatureRepository;
+    private final FeatureCatalogRepository featureCatalogRepository;
+    private final TenantRepository tenantRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Map<String, Integer> featureBits = Map.of();
+    private final Map<UUID, Entitlements> tenants = new ConcurrentHashMap<>();
+    private final Map<UUID, Version> versions = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Value("${app.features.entitlement-ttl-ms:300000}")
+    private long ttlMs;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate.executeWithoutResult(status -> assignBitIndexes());
+        reloadFeatureBits();
+    }
+
+    /**
+     * Gives every catalog feature without one the next free bit position. Must run
+     * inside the transaction that created the features.
+     */
+    public void assignBitIndexes() {
+        jdbcTemplate.execute("LOCK TABLE feature_catalog IN SHARE ROW EXCLUSIVE MODE");
+        int assigned = jdbcTemplate.update(
+                "UPDATE feature_catalog f SET bit_index = n.bit_index FROM (" +
+                "SELECT feature_code, (SELECT COALESCE(MAX(bit_index), -1) FROM feature_catalog) " +
+                "+ ROW_NUMBER() OVER (ORDER BY feature_code) AS bit_index " +
+                "FROM feature_catalog WHERE bit_index IS NULL) n " +
+                "WHERE f.feature_code = n.feature_code");
+        if (assigned > 0) {
+            log.info("Assigned entitlement bits to {} features", assigned);
+        }
+    }
+
+    /**
+     * Bumps the tenant's entitlement version, invalidating tokens issued before it.
+     * Must run inside the transaction that changed the tenant's features or plan.
+     */
+    public void markChanged(UUID tenantId) {
+        tenantRepository.bumpEntitlementVersion(tenantId);
+        eventPublisher.publishEvent(new EntitlementsChangedEvent(tenantId));
+    }
+
+    /**
+     * Bit position for {@code featureCode}, or -1 for a code the catalog does not know.
+     */
+    public int bitOf(String featureCode) {
+        Integer bit = featureBits.get(featureCode);
+        return bit != null ? bit : -1;
+    }
+
+    public boolean isEnabled(UUID tenantId, String featureCode) {
+        return isEnabled(tenantId, bitOf(featureCode));
+    }
+
+    public boolean isEnabled(UUID tenantId, int bit) {
+        Entitlements entitlements = tenants.get(tenantId);
+        if (entitlements == null || isExpired(entitlements.loadedAt)) {
+            long invalidationsBefore = invalidations.get();
+            entitlements = new Entitlements(loadBits(tenantId), System.nanoTime());
+            cacheIfCurrent(tenants, tenantId, entitlements, invalidationsBefore);
+        }
+        return entitlements.has(bit);
+    }
+
+    public long currentVersion(UUID tenantId) {
+        Version version = versions.get(tenantId);
+        if (version == null || isExpired(version.loadedAt)) {
+            long invalidationsBefore = invalidations.get();
+            version = new Version(tenantRepository.findEntitlementVersion(tenantId).orElse(0L), System.nanoTime());
+            cacheIfCurrent(versions, tenantId, version, invalidationsBefore);
+        }
+        return version.value;
+    }
+
+    /**
+     * Reads the tenant's entitlements straight from the database for a new access
+     * token, so the token sees features changed earlier in the caller's transaction.
+     */
+    public TokenEntitlements issue(UUID tenantId) {
+        long version = tenantRepository.findEntitlementVersion(tenantId).orElse(0L);
+        return new TokenEntitlements(loadBits(tenantId), version);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntitlementsChanged(EntitlementsChangedEvent event) {
+        invalidations.incrementAndGet();
+        tenants.remove(event.getTenantId());
+        versions.remove(event.getTenantId());
+        // Cheap, and picks up bits assigned to features created in the same transaction
+        reloadFeatureBits();
+    }
+
+    @Scheduled(fixedDelayString = "${app.features.entitlement-ttl-ms:300000}")
+    public void evictExpired() {
+        tenants.values().removeIf(entitlements -> isExpired(entitlements.loadedAt));
+        versions.values().removeIf(version -> isExpired(version.loadedAt));
+    }
+
+    private void reloadFeatureBits() {
+        Map<String, Integer> bits = new HashMap<>();
+        for (Object[] row : featureCatalogRepository.findBitIndexes()) {
+            bits.put((String) row[0], (Integer) row[1]);
+        }
+        featureBits = Map.copyOf(bits);
+    }
+
+    private long[] loadBits(UUID tenantId) {
+        List<String> codes = tenantFeatureRepository.findEnabledFeatureCodes(tenantId);
+        long[] bits = new long[1];
+        for (String code : codes) {
+            int bit = bitOf(code);
+            if (bit < 0) {
+                continue;
+            }
+            if (bit >>> 6 >= bits.length) {
+                bits = Arrays.copyOf(bits, (bit >>> 6) + 1);
+            }
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        return bits;
+    }
+
+    private <V> void cacheIfCurrent(Map<UUID, V> cache, UUID tenantId, V value, long invalidationsBefore) {
+        // A change that committed while we were reading may be missing; use the value once, don't keep it
+        if (invalidations.get() == invalidationsBefore) {
+            cache.put(tenantId, value);
+        }
+    }
+
+    private boolean isExpired(long loadedAt) {
+        return System.nanoTime() - loadedAt > ttlMs * 1_000_000L;
+    }
+
+    private static final class Entitlements {
+        private final long[] bits;
+        private final long loadedAt;
+
+        private Entitlements(long[] bits, long loadedAt) {
+            this.bits = bits;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean has(int bit) {
+            int word = bit >>> 6;
+            return word < bits.length && (bits[word] & (1L << bit)) != 0;
+        }
+    }
+
+    private static final class Version {
+        private final long value;
+        private final long loadedAt;
+
+        private Version(long value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.restaurant.billing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.billing.exception.BadRequestException;
+import com.restaurant.billing.repository.OrderRepository;
+import com.restaurant.billing.repository.ProductSalesHourlyRollupRepository;
+import com.restaurant.billing.repository.SalesHourlyRollupRepository;
+import com.restaurant.billing.util.ExportWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams report and order exports from a server-side cursor straight into the
+ * response, so memory use does not depend on the size of the range. Methods run
+ * on the async response thread, hence the explicit tenant id.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final OrderRepository orderRepository;
+    private final SalesHourlyRollupRepository salesRollupRepository;
+    private final ProductSalesHourlyRollupRepository productRollupRepository;
+    private final ObjectMapper objectMapper;
+
+    public static void validateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new BadRequestException("startDate must not be after endDate");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeOrders(UUID tenantId, LocalDateTime from, LocalDateTime to,
+                            ExportWriter.Format format, OutputStream out) throws IOException {
+        ExportWriter writer = ExportWriter.create(format, out, objectMapper,
+                "id", "orderNumber", "orderType", "orderStatus", "tableNumber", "customerName",
+                "customerPhone", "subtotal", "taxAmount", "serviceCharge", "discountAmount",
+                "totalAmount", "deviceId", "createdAt");
+        try (Stream<Object[]> rows = orderRepository.streamForExport(tenantId, from, to)) {
+            writeRows(writer, rows);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeDayWiseSales(UUID tenantId, LocalDateTime startDate, LocalDateTime endDate,
+                                  ExportWriter.Format format, OutputStream out) throws IOException {
+        ExportWriter writer = ExportWriter.create(format, out, objectMapper, "date", "totalSales");
+        try (Stream<Object[]> rows = salesRollupRepository.streamDailySales(tenantId, startDate,
+                SalesRollupService.rollupStart(startDate, endDate),
+                SalesRollupService.rollupEnd(startDate, endDate), endDate)) {
+            writeRows(writer, rows.map(row -> new Object[]{toLocalDate(row[0]), row[1]}));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeProductWiseSales(UUID tenantId, LocalDateTime startDate, LocalDateTime endDate,
+                                      ExportWriter.Format format, OutputStream out) throws IOException {
+        ExportWriter writer = ExportWriter.create(format, out, objectMapper,
+                "menuItemId", "itemName", "totalQuantity", "totalRevenue");
+        try (Stream<Object[]> rows = productRollupRepository.streamProductSales(tenantId, startDate,
+                SalesRollupService.rollupStart(startDate, endDate),
+                SalesRollupService.rollupEnd(startDate, endDate), endDate)) {
+            writeRows(writer, rows);
+        }
+    }
+
+    private void writeRows(ExportWriter writer, Stream<Object[]> rows) throws IOException {
+        int written = 0;
+        for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+            writer.writeRow(it.next());
+            if (++written % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private Object toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : value;
+    }
+}
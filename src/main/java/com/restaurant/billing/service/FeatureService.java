@@ -19,6 +19,7 @@ public class FeatureService {
 
     private final FeatureCatalogRepository featureCatalogRepository;
     private final TenantFeatureRepository tenantFeatureRepository;
+    private final EntitlementRegistry entitlementRegistry;
 
     @Transactional
     public void initializeDefaultFeatures(UUID tenantId) {
@@ -32,7 +33,7 @@ public class FeatureService {
 
         for (String featureCode : coreFeatures) {
             FeatureCatalog feature = featureCatalogRepository.findById(featureCode)
-                    .orElse(createDefaultFeature(featureCode));
+                    .orElseGet(() -> createDefaultFeature(featureCode));
 
             TenantFeature tenantFeature = TenantFeature.builder()
                     .tenantId(tenantId)
@@ -44,6 +45,7 @@ public class FeatureService {
             tenantFeatureRepository.save(tenantFeature);
         }
 
+        entitlementRegistry.markChanged(tenantId);
         log.info("Initialized default features for tenant: {}", tenantId);
     }
 
@@ -57,7 +59,7 @@ public class FeatureService {
 
         for (String featureCode : premiumFeatures) {
             FeatureCatalog feature = featureCatalogRepository.findById(featureCode)
-                    .orElse(createDefaultFeature(featureCode));
+                    .orElseGet(() -> createDefaultFeature(featureCode));
 
             TenantFeature existingFeature = tenantFeatureRepository
                     .findByTenantIdAndFeatureFeatureCode(tenantId, featureCode)
@@ -79,14 +81,12 @@ public class FeatureService {
             }
         }
 
+        entitlementRegistry.markChanged(tenantId);
         log.info("Enabled premium features for tenant: {}", tenantId);
     }
 
     public boolean isFeatureEnabled(UUID tenantId, String featureCode) {
-        return tenantFeatureRepository
-                .findByTenantIdAndFeatureFeatureCode(tenantId, featureCode)
-                .map(TenantFeature::getIsEnabled)
-                .orElse(false);
+        return entitlementRegistry.isEnabled(tenantId, featureCode);
     }
 
     private FeatureCatalog createDefaultFeature(String featureCode) {
@@ -98,6 +98,8 @@ public class FeatureService {
                 .defaultEnabled(true)
                 .build();
 
-        return featureCatalogRepository.save(feature);
+        FeatureCatalog saved = featureCatalogRepository.saveAndFlush(feature);
+        entitlementRegistry.assignBitIndexes();
+        return saved;
     }
 }
\ No newline at end of file
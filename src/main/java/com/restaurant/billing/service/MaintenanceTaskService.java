@@ -0,0 +1,54 @@
+package com.restaurant.billing.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs one-time maintenance jobs, such as backfills after a schema change, exactly
+ * once across all nodes. A node claims the job's row before running it; a claim
+ * whose node died is taken over after {@code app.maintenance.claim-timeout-minutes}.
+ * A failed run releases its claim so the next startup retries it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MaintenanceTaskService {
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO maintenance_tasks (task_name, started_at) VALUES (?, now()) " +
+            "ON CONFLICT (task_name) DO UPDATE SET started_at = now() " +
+            "WHERE maintenance_tasks.completed_at IS NULL " +
+            "AND maintenance_tasks.started_at < now() - make_interval(mins => ?) " +
+            "RETURNING task_name";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.maintenance.claim-timeout-minutes:60}")
+    private int claimTimeoutMinutes;
+
+    /**
+     * Runs the task unless it has completed, or another node is running it. The task
+     * must be safe to re-run after a partial failure.
+     */
+    public void runOnce(String taskName, Runnable task) {
+        boolean claimed = !jdbcTemplate.queryForList(CLAIM_SQL, String.class, taskName, claimTimeoutMinutes)
+                .isEmpty();
+        if (!claimed) {
+            log.debug("Maintenance task {} already done or running elsewhere", taskName);
+            return;
+        }
+        log.info("Running maintenance task {}", taskName);
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            jdbcTemplate.update("DELETE FROM maintenance_tasks WHERE task_name = ? AND completed_at IS NULL",
+                    taskName);
+            throw e;
+        }
+        jdbcTemplate.update("UPDATE maintenance_tasks SET completed_at = now() WHERE task_name = ?", taskName);
+        log.info("Maintenance task {} completed", taskName);
+    }
+}
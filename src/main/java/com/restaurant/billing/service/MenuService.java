@@ -1,5 +1,6 @@
 package com.restaurant.billing.service;
 
+import com.restaurant.billing.config.CacheConfig;
 import com.restaurant.billing.dto.menu.*;
 import com.restaurant.billing.entity.*;
 import com.restaurant.billing.exception.ResourceNotFoundException;
@@ -7,7 +8,6 @@ import com.restaurant.billing.repository.*;
 import com.restaurant.billing.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,14 +22,15 @@ public class MenuService {
 
     private final MenuItemRepository menuItemRepository;
     private final CategoryRepository categoryRepository;
+    private final MenuSnapshotService menuSnapshotService;
 
-//    @Cacheable(value = "menu-items", key = "#tenantId")
-    @Transactional(readOnly = true)
+    // Cached like the menu snapshot, so a read racing a write cannot re-cache the old list
     public List<MenuItemDto> getAllMenuItems(UUID tenantId) {
-        return menuItemRepository.findByTenantIdAndIsDeleted(tenantId, false)
-                .stream()
-                .map(MenuItemDto::fromEntity)
-                .collect(Collectors.toList());
+        return menuSnapshotService.readThrough(CacheConfig.MENU_ITEMS, tenantId,
+                version -> menuItemRepository.findByTenantIdAndIsDeleted(tenantId, false)
+                        .stream()
+                        .map(MenuItemDto::fromEntity)
+                        .collect(Collectors.toList()));
     }
 
     @Transactional(readOnly = true)
@@ -40,11 +41,17 @@ public class MenuService {
     }
 
 
-    //@CacheEvict(value = "menu-items", key = "#tenantContext.tenantId")
+    @CacheEvict(value = CacheConfig.MENU_ITEMS, keyGenerator = "tenantAwareKeyGenerator")
     @Transactional
     public MenuItemDto createMenuItem(MenuItemDto dto, String deviceId) {
-        UUID tenantId = TenantContext.getTenantId();
+        return MenuItemDto.fromEntity(saveNewMenuItem(TenantContext.getTenantId(), dto, deviceId));
+    }
 
+    /**
+     * Creates a menu item in the caller's transaction.
+     */
+    @CacheEvict(value = CacheConfig.MENU_ITEMS, keyGenerator = "tenantAwareKeyGenerator")
+    public MenuItem saveNewMenuItem(UUID tenantId, MenuItemDto dto, String deviceId) {
         Category category = null;
         if (dto.getCategoryId() != null) {
             category = categoryRepository.findById(dto.getCategoryId())
@@ -67,15 +74,23 @@ public class MenuService {
                 .build();
 
         MenuItem saved = menuItemRepository.save(item);
-        return MenuItemDto.fromEntity(saved);
+        menuSnapshotService.bump(tenantId);
+        return saved;
     }
 
-    //@CacheEvict(value = "menu-items", key = "#tenantContext.tenantId")
+    @CacheEvict(value = CacheConfig.MENU_ITEMS, keyGenerator = "tenantAwareKeyGenerator")
     @Transactional
     public MenuItemDto updateMenuItem(UUID id, MenuItemDto dto, String deviceId) {
         MenuItem item = menuItemRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Menu item not found"));
+        return MenuItemDto.fromEntity(saveMenuItemUpdate(item, dto, deviceId));
+    }
 
+    /**
+     * Applies {@code dto} to an existing menu item in the caller's transaction.
+     */
+    @CacheEvict(value = CacheConfig.MENU_ITEMS, keyGenerator = "tenantAwareKeyGenerator")
+    public MenuItem saveMenuItemUpdate(MenuItem item, MenuItemDto dto, String deviceId) {
         if (dto.getCategoryId() != null) {
             Category category = categoryRepository.findById(dto.getCategoryId())
                     .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
@@ -93,10 +108,11 @@ public class MenuService {
         item.setSyncedAt(null); // Mark for sync
 
         MenuItem updated = menuItemRepository.save(item);
-        return MenuItemDto.fromEntity(updated);
+        menuSnapshotService.bump(item.getTenantId());
+        return updated;
     }
 
-    //@CacheEvict(value = "menu-items", key = "#tenantContext.tenantId")
+    @CacheEvict(value = CacheConfig.MENU_ITEMS, keyGenerator = "tenantAwareKeyGenerator")
     @Transactional
     public void deleteMenuItem(UUID id) {
         MenuItem item = menuItemRepository.findById(id)
@@ -104,13 +120,30 @@ public class MenuService {
         item.setIsDeleted(true);
         item.setSyncedAt(null);
         menuItemRepository.save(item);
+        menuSnapshotService.bump(item.getTenantId());
+    }
+
+    /**
+     * Soft-deletes a menu item on behalf of a device, in the caller's transaction.
+     */
+    @CacheEvict(value = CacheConfig.MENU_ITEMS, keyGenerator = "tenantAwareKeyGenerator")
+    public MenuItem markMenuItemDeleted(MenuItem item, String deviceId) {
+        if (!Boolean.TRUE.equals(item.getIsDeleted())) {
+            item.setIsDeleted(true);
+            item.setDeviceId(deviceId);
+            item.setVersion(item.getVersion() + 1);
+            item.setSyncedAt(null);
+            menuItemRepository.save(item);
+            menuSnapshotService.bump(item.getTenantId());
+        }
+        return item;
     }
 
-    @Transactional(readOnly = true)
     public List<CategoryDto> getAllCategories(UUID tenantId) {
-        return categoryRepository.findByTenantIdAndIsActiveOrderByDisplayOrder(tenantId, true)
-                .stream()
-                .map(CategoryDto::fromEntity)
-                .collect(Collectors.toList());
+        return menuSnapshotService.readThrough(CacheConfig.CATEGORIES, tenantId,
+                version -> categoryRepository.findByTenantIdAndIsActiveOrderByDisplayOrder(tenantId, true)
+                        .stream()
+                        .map(CategoryDto::fromEntity)
+                        .collect(Collectors.toList()));
     }
 }
\ No newline at end of file
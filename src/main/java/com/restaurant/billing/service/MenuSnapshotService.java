@@ -0,0 +1,153 @@
+package com.restaurant.billing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.billing.config.CacheConfig;
+import com.restaurant.billing.config.TwoLevelCacheManager;
+import com.restaurant.billing.dto.menu.CategoryDto;
+import com.restaurant.billing.dto.menu.MenuItemDto;
+import com.restaurant.billing.dto.menu.MenuSnapshot;
+import com.restaurant.billing.entity.MenuVersion;
+import com.restaurant.billing.repository.CategoryRepository;
+import com.restaurant.billing.repository.MenuItemRepository;
+import com.restaurant.billing.repository.MenuVersionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves each tenant's full menu as a cached, pre-serialized and pre-compressed
+ * snapshot. Every menu write bumps the tenant's {@code menu_versions} row and
+ * evicts the snapshot once the write commits; until then repeat requests, and
+ * conditional requests that end in a 304, never reach the database.
+ * <p>
+ * Evictions reach other nodes through Redis. Without {@code app.cache.redis.enabled},
+ * a node only sees its own writes and may serve the previous menu for up to
+ * {@code app.cache.local.ttl-seconds}, so multi-node deployments need the shared store.
+ */
+@Service
+@RequiredArgsConstructor
+public class MenuSnapshotService {
+
+    private final MenuVersionRepository menuVersionRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+    private final TwoLevelCacheManager cacheManager;
+
+    private TransactionTemplate snapshotTransaction;
+
+    @PostConstruct
+    public void init() {
+        // The version and the rows it tags must come from the same database snapshot
+        snapshotTransaction = new TransactionTemplate(transactionManager);
+        snapshotTransaction.setReadOnly(true);
+        snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Must run inside the menu write's transaction.
+     */
+    @CacheEvict(value = CacheConfig.MENU_SNAPSHOTS, key = "#tenantId.toString()")
+    public void bump(UUID tenantId) {
+        menuVersionRepository.bump(tenantId);
+    }
+
+    // Not transactional itself: a cache hit must not check out a connection
+    public MenuSnapshot getSnapshot(UUID tenantId) {
+        return readThrough(CacheConfig.MENU_SNAPSHOTS, tenantId, version -> build(tenantId, version));
+    }
+
+    /**
+     * Reads a tenant's menu data through {@code cacheName}, loading it on a miss together
+     * with the tenant's menu version. Entries must be evicted by every menu write.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T readThrough(String cacheName, UUID tenantId, LongFunction<T> loader) {
+        // The raw cache, since a transaction-aware put could be deferred past the check below
+        Cache cache = cacheManager.getTwoLevelCache(cacheName);
+        String key = tenantId.toString();
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        long[] version = new long[1];
+        T value = snapshotTransaction.execute(status -> {
+            version[0] = menuVersionRepository.findById(tenantId)
+                    .map(MenuVersion::getVersion)
+                    .orElse(0L);
+            return loader.apply(version[0]);
+        });
+        cache.put(key, value);
+        // A write that committed after the value was read either shows up here, or
+        // commits after this check and so evicts after the put; either way nothing stale stays
+        long current = menuVersionRepository.findVersionByTenantId(tenantId).orElse(0L);
+        if (current != version[0]) {
+            cache.evict(key);
+        }
+        return value;
+    }
+
+    private MenuSnapshot build(UUID tenantId, long version) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("version", version);
+        body.put("categories", categoryRepository.findByTenantIdAndIsActiveOrderByDisplayOrder(tenantId, true)
+                .stream()
+                .map(CategoryDto::fromEntity)
+                .collect(Collectors.toList()));
+        body.put("items", menuItemRepository.findByTenantIdAndIsDeleted(tenantId, false)
+                .stream()
+                .map(MenuItemDto::fromEntity)
+                .collect(Collectors.toList()));
+
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            String tag = "v" + version + "-" + digest(json);
+            return MenuSnapshot.builder()
+                    .version(version)
+                    .etag("\"" + tag + "\"")
+                    .gzipEtag("\"" + tag + "-gz\"")
+                    .json(json)
+                    .gzip(gzip(json))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize menu snapshot for tenant " + tenantId, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,18 +2,25 @@ package com.restaurant.billing.service;
 
 import com.restaurant.billing.dto.order.*;
 import com.restaurant.billing.entity.*;
+import com.restaurant.billing.event.OrderCompletedEvent;
+import com.restaurant.billing.exception.BadRequestException;
 import com.restaurant.billing.exception.ResourceNotFoundException;
 import com.restaurant.billing.repository.*;
 import lombok.extern.slf4j.Slf4j;
 import com.restaurant.billing.security.TenantContext;
+import com.restaurant.billing.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,19 +28,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
     private final MenuItemRepository menuItemRepository;
     private final RestaurantTableRepository tableRepository;
-    private final TenantRepository tenantRepository;
-    private final BillRepository billRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DashboardCounterService dashboardCounterService;
 
     @Transactional
     public OrderDto createOrder(CreateOrderRequest request) {
-        UUID tenantId = TenantContext.getTenantId();
-
-        Tenant tenant = tenantRepository.findById(tenantId)
-                .orElseThrow(() -> new ResourceNotFoundException("Tenant not found"));
+        return OrderDto.fromEntity(placeOrder(TenantContext.getTenantId(), request));
+    }
 
+    /**
+     * Builds, saves and queues billing for a new order. Runs in the caller's transaction;
+     * sync uses it directly so a rejected item does not roll back the rest of its chunk.
+     */
+    public Order placeOrder(UUID tenantId, CreateOrderRequest request) {
         RestaurantTable table = null;
         if (request.getTableId() != null) {
             table = tableRepository.findById(request.getTableId())
@@ -53,10 +67,12 @@ public class OrderService {
                 .version(1L)
                 .build();
 
+        // Resolve every line's menu item in a single tenant-scoped query
+        Map<UUID, MenuItem> menuItems = resolveMenuItems(tenantId, request.getItems());
+
         // Add order items
         for (OrderItemRequest itemReq : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(itemReq.getMenuItemId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Menu item not found"));
+            MenuItem menuItem = menuItems.get(itemReq.getMenuItemId());
 
             OrderItem orderItem = OrderItem.builder()
                     .menuItem(menuItem)
@@ -77,10 +93,11 @@ public class OrderService {
 
         Order saved = orderRepository.save(order);
 
-        // Automatically generate bill for completed orders
-        generateBillForOrder(saved, tenant);
+        // Bill generation happens off the request path: record an outbox event in
+        // this transaction and let BillOutboxProcessor materialize the bill
+        recordOrderCompleted(saved);
 
-        return OrderDto.fromEntity(saved);
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -92,53 +109,116 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public OrderPageDto getOrderPage(String cursor, Integer limit, String status, String orderType,
+                                     UUID tableId, LocalDateTime from, LocalDateTime to) {
+        UUID tenantId = TenantContext.getTenantId();
+        int pageSize = Math.min(limit != null && limit > 0 ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+
+        LocalDateTime afterCreatedAt = null;
+        UUID afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorUtil.decode(cursor, 2);
+            try {
+                afterCreatedAt = LocalDateTime.parse(position[0]);
+                afterId = UUID.fromString(position[1]);
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        // Fetch one extra row to learn whether another page exists
+        List<Order> orders = orderRepository.findPage(tenantId,
+                parseEnum(Order.OrderStatus.class, status, "status"),
+                parseEnum(Order.OrderType.class, orderType, "order type"),
+                tableId, from, to, afterCreatedAt, afterId, pageSize + 1);
+
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+
+        // Load the line items of the whole page in one query instead of one per order
+        if (!page.isEmpty()) {
+            orderRepository.fetchItems(page.stream().map(Order::getId).collect(Collectors.toList()));
+        }
+
+        Order last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return OrderPageDto.builder()
+                .items(page.stream().map(OrderDto::fromEntity).collect(Collectors.toList()))
+                .nextCursor(hasMore ? CursorUtil.encode(last.getCreatedAt(), last.getId()) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public OrderDto getOrderById(UUID id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithTableAndItemsByIdAndTenantId(id, TenantContext.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
         return OrderDto.fromEntity(order);
     }
 
     @Transactional
     public OrderDto updateOrderStatus(UUID id, String status) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithTableAndItemsByIdAndTenantId(id, TenantContext.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
+        Order.OrderStatus previousStatus = order.getOrderStatus();
         order.setOrderStatus(Order.OrderStatus.valueOf(status));
         order.setVersion(order.getVersion() + 1);
+        order.markFieldChanged(Order.FIELD_STATUS, LocalDateTime.now());
         order.setSyncedAt(null);
 
         Order updated = orderRepository.save(order);
+        dashboardCounterService.recordOrderStatusChange(
+                order.getTenantId(), previousStatus, updated.getOrderStatus());
         return OrderDto.fromEntity(updated);
     }
 
-    private void generateBillForOrder(Order order, Tenant tenant) {
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String value, String label) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
         try {
-            // Check if bill already exists
-            Bill existingBill = billRepository.findByOrderId(order.getId()).orElse(null);
-            if (existingBill != null) {
-                log.info("Bill already exists for order: {}", order.getId());
-                return;
-            }
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + label + ": " + value);
+        }
+    }
 
-            Bill bill = Bill.builder()
-                    .tenantId(order.getTenantId())
-                    .order(order)
-                    .subtotal(order.getSubtotal())
-                    .taxAmount(order.getTaxAmount())
-                    .serviceCharge(order.getServiceCharge())
-                    .discountAmount(BigDecimal.ZERO)
-                    .totalAmount(order.getTotalAmount())
-                    .paymentMethod(Bill.PaymentMethod.CASH) // Default payment method
-                    .paymentStatus(Bill.PaymentStatus.PAID)
-                    .build();
+    private void recordOrderCompleted(Order order) {
+        orderEventRepository.save(OrderEvent.builder()
+                .tenantId(order.getTenantId())
+                .orderId(order.getId())
+                .eventType(OrderEvent.EventType.ORDER_COMPLETED)
+                .build());
+        eventPublisher.publishEvent(new OrderCompletedEvent(order.getTenantId(), order.getId()));
+    }
 
-            billRepository.save(bill);
-            log.info("Bill generated for order: {}", order.getId());
+    private Map<UUID, MenuItem> resolveMenuItems(UUID tenantId, List<OrderItemRequest> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("Order must contain at least one item");
+        }
 
-        } catch (Exception e) {
-            log.error("Failed to generate bill for order: {}", order.getId(), e);
-            // Don't throw exception to avoid breaking order creation
+        Set<UUID> requestedIds = new LinkedHashSet<>();
+        for (OrderItemRequest itemReq : items) {
+            if (itemReq.getMenuItemId() == null) {
+                throw new BadRequestException("Menu item id is required for every order item");
+            }
+            requestedIds.add(itemReq.getMenuItemId());
         }
+
+        Map<UUID, MenuItem> menuItems = menuItemRepository.findAllByIdInAndTenantId(requestedIds, tenantId)
+                .stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
+        if (menuItems.size() < requestedIds.size()) {
+            // Ids of other tenants are reported exactly like unknown ones, so their existence is not revealed
+            List<UUID> missingIds = requestedIds.stream()
+                    .filter(id -> !menuItems.containsKey(id))
+                    .collect(Collectors.toList());
+            throw new ResourceNotFoundException("Menu items not found: " + missingIds);
+        }
+
+        return menuItems;
     }
-}
\ No newline at end of file
+
+}
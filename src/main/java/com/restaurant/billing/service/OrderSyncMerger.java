@@ -0,0 +1,220 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.dto.sync.FieldConflictDto;
+import com.restaurant.billing.dto.sync.SyncItemDto;
+import com.restaurant.billing.entity.Order;
+import com.restaurant.billing.entity.OrderItem;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Merges an offline order edit into the server copy field by field. A field the
+ * server has not touched since the client's base version is simply applied; a field
+ * both sides changed is resolved by its own rule:
+ * <ul>
+ *   <li>notes and customer details: last writer wins, comparing {@code clientModifiedAt}
+ *       with when that field last changed</li>
+ *   <li>status: the further-progressed status wins, and a terminal server status is kept</li>
+ *   <li>item quantities: sent as deltas and summed, so concurrent edits commute. Deltas
+ *       on items changed since the base version need an idempotency key, since otherwise
+ *       a retry of an applied delta cannot be told apart from a concurrent edit</li>
+ * </ul>
+ */
+@Component
+public class OrderSyncMerger {
+
+    public static final String CLIENT_WINS = "CLIENT_WINS";
+    public static final String SERVER_WINS = "SERVER_WINS";
+    public static final String MERGED = "MERGED";
+
+    static final String ITEM_QUANTITY_DELTAS = "itemQuantityDeltas";
+
+    private static final Set<Order.OrderStatus> TERMINAL_STATUSES =
+            EnumSet.of(Order.OrderStatus.COMPLETED, Order.OrderStatus.CANCELLED);
+
+    public MergeResult merge(Order order, SyncItemDto item) {
+        Map<String, Object> payload = item.getPayload() != null ? item.getPayload() : Map.of();
+        long baseVersion = item.getClientVersion() != null ? item.getClientVersion() : 0L;
+        MergeResult result = new MergeResult(order.getOrderStatus());
+        // Parsed before anything is applied, so a rejected payload leaves the managed order untouched
+        Order.OrderStatus clientStatus = parseStatus(payload.get(Order.FIELD_STATUS));
+        Map<String, Integer> deltas = parseDeltas(payload.get(ITEM_QUANTITY_DELTAS));
+
+        mergeText(order, item, payload, baseVersion, Order.FIELD_NOTES,
+                Order::getNotes, Order::setNotes, result);
+        mergeText(order, item, payload, baseVersion, Order.FIELD_CUSTOMER_NAME,
+                Order::getCustomerName, Order::setCustomerName, result);
+        mergeText(order, item, payload, baseVersion, Order.FIELD_CUSTOMER_PHONE,
+                Order::getCustomerPhone, Order::setCustomerPhone, result);
+        mergeStatus(order, clientStatus, baseVersion, result);
+        mergeItemQuantities(order, item, deltas, baseVersion, result);
+
+        if (!result.changedFields.isEmpty()) {
+            order.setVersion(order.getVersion() + 1);
+            LocalDateTime now = LocalDateTime.now();
+            // A device clock running ahead must not make its edits win every later conflict
+            LocalDateTime modifiedAt = item.getClientModifiedAt() != null && item.getClientModifiedAt().isBefore(now)
+                    ? item.getClientModifiedAt()
+                    : now;
+            result.changedFields.forEach(field -> order.markFieldChanged(field, modifiedAt));
+            if (result.changedFields.contains(Order.FIELD_ITEMS)) {
+                order.recalculateSubtotal();
+            }
+            order.setSyncedAt(LocalDateTime.now());
+        }
+        return result;
+    }
+
+    private void mergeText(Order order, SyncItemDto item, Map<String, Object> payload, long baseVersion,
+                           String field, Function<Order, String> getter, BiConsumer<Order, String> setter,
+                           MergeResult result) {
+        if (!payload.containsKey(field)) {
+            return;
+        }
+        Object raw = payload.get(field);
+        String clientValue = raw != null ? raw.toString() : null;
+        String serverValue = getter.apply(order);
+        if (Objects.equals(clientValue, serverValue)) {
+            return;
+        }
+        if (order.getFieldVersion(field) <= baseVersion) {
+            setter.accept(order, clientValue);
+            result.changedFields.add(field);
+            return;
+        }
+
+        // Both sides edited the field: the later edit of this field wins
+        LocalDateTime serverModifiedAt = order.getFieldModifiedAt(field);
+        boolean clientIsLater = item.getClientModifiedAt() != null && serverModifiedAt != null
+                && item.getClientModifiedAt().isAfter(serverModifiedAt);
+        if (clientIsLater) {
+            setter.accept(order, clientValue);
+            result.changedFields.add(field);
+        }
+        result.addConflict(field, clientValue, serverValue, clientIsLater ? CLIENT_WINS : SERVER_WINS);
+    }
+
+    private static Order.OrderStatus parseStatus(Object raw) {
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return Order.OrderStatus.valueOf(raw.toString().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid order status: " + raw);
+        }
+    }
+
+    private void mergeStatus(Order order, Order.OrderStatus clientStatus, long baseVersion, MergeResult result) {
+        if (clientStatus == null) {
+            return;
+        }
+        Order.OrderStatus serverStatus = order.getOrderStatus();
+        if (clientStatus == serverStatus) {
+            return;
+        }
+        if (order.getFieldVersion(Order.FIELD_STATUS) <= baseVersion) {
+            order.setOrderStatus(clientStatus);
+            result.changedFields.add(Order.FIELD_STATUS);
+            return;
+        }
+
+        // Both sides moved the status: keep a terminal server status, otherwise the furthest along
+        boolean clientWins = serverStatus == null || (!TERMINAL_STATUSES.contains(serverStatus)
+                && (TERMINAL_STATUSES.contains(clientStatus) || clientStatus.ordinal() > serverStatus.ordinal()));
+        if (clientWins) {
+            order.setOrderStatus(clientStatus);
+            result.changedFields.add(Order.FIELD_STATUS);
+        }
+        result.addConflict(Order.FIELD_STATUS, clientStatus.name(),
+                serverStatus != null ? serverStatus.name() : null, clientWins ? MERGED : SERVER_WINS);
+    }
+
+    private static Map<String, Integer> parseDeltas(Object raw) {
+        if (raw == null) {
+            return Map.of();
+        }
+        if (!(raw instanceof Map<?, ?> rawDeltas)) {
+            throw new IllegalArgumentException("Invalid " + ITEM_QUANTITY_DELTAS + ": " + raw);
+        }
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : rawDeltas.entrySet()) {
+            if (!(entry.getValue() instanceof Number delta)) {
+                throw new IllegalArgumentException("Invalid quantity delta for item " + entry.getKey()
+                        + ": " + entry.getValue());
+            }
+            deltas.put(String.valueOf(entry.getKey()), delta.intValue());
+        }
+        return deltas;
+    }
+
+    private void mergeItemQuantities(Order order, SyncItemDto item, Map<String, Integer> deltas,
+                                     long baseVersion, MergeResult result) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        if (item.getIdempotencyKey() == null && order.getFieldVersion(Order.FIELD_ITEMS) > baseVersion) {
+            // Could be a retry of deltas the server already applied; summing again would double them
+            result.addConflict(ITEM_QUANTITY_DELTAS, deltas, null, SERVER_WINS);
+            return;
+        }
+        Map<String, OrderItem> itemsById = new HashMap<>();
+        for (OrderItem orderItem : order.getItems()) {
+            itemsById.put(orderItem.getId().toString(), orderItem);
+        }
+
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            String itemId = entry.getKey();
+            OrderItem orderItem = itemsById.get(itemId);
+            if (orderItem == null) {
+                // Removed on the server while the device was offline
+                result.addConflict(ITEM_QUANTITY_DELTAS + "." + itemId, entry.getValue(), null, SERVER_WINS);
+                continue;
+            }
+            int delta = entry.getValue();
+            if (delta == 0) {
+                continue;
+            }
+            int quantity = orderItem.getQuantity() + delta;
+            if (quantity > 0) {
+                orderItem.setQuantity(quantity);
+            } else {
+                order.getItems().remove(orderItem);
+            }
+            result.changedFields.add(Order.FIELD_ITEMS);
+        }
+    }
+
+    @Getter
+    public static class MergeResult {
+        private final Order.OrderStatus previousStatus;
+        private final Set<String> changedFields = new LinkedHashSet<>();
+        private final List<FieldConflictDto> conflicts = new ArrayList<>();
+
+        private MergeResult(Order.OrderStatus previousStatus) {
+            this.previousStatus = previousStatus;
+        }
+
+        public boolean isConcurrent() {
+            return !conflicts.isEmpty();
+        }
+
+        public boolean hasRejectedFields() {
+            return conflicts.stream().anyMatch(conflict -> SERVER_WINS.equals(conflict.getResolution()));
+        }
+
+        private void addConflict(String field, Object clientValue, Object serverValue, String resolution) {
+            conflicts.add(FieldConflictDto.builder()
+                    .field(field)
+                    .clientValue(clientValue)
+                    .serverValue(serverValue)
+                    .resolution(resolution)
+                    .build());
+        }
+    }
+}
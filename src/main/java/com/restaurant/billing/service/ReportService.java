@@ -1,54 +1,101 @@
 package com.restaurant.billing.service;
 
+import com.restaurant.billing.entity.Bill;
 import com.restaurant.billing.repository.BillRepository;
 import com.restaurant.billing.repository.OrderItemRepository;
+import com.restaurant.billing.repository.ProductSalesHourlyRollupRepository;
+import com.restaurant.billing.repository.SalesHourlyRollupRepository;
 import com.restaurant.billing.security.TenantContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Sales reports over paid bills. Whole hours inside the requested range are read
+ * from the hourly rollups; only the partial hours at either edge touch raw rows.
+ */
 @Service
 @RequiredArgsConstructor
 public class ReportService {
 
     private final BillRepository billRepository;
     private final OrderItemRepository orderItemRepository;
+    private final SalesHourlyRollupRepository salesRollupRepository;
+    private final ProductSalesHourlyRollupRepository productRollupRepository;
+    private final SalesRollupService salesRollupService;
 
     public List<Map<String, Object>> getProductWiseSales(LocalDateTime startDate, LocalDateTime endDate) {
         UUID tenantId = TenantContext.getTenantId();
-        List<Object[]> results = orderItemRepository.getProductSales(tenantId, startDate, endDate);
-
-        return results.stream().map(row -> {
-            Object menuItemId = row[0];
-            Object itemName = row[1];
-            Object totalQuantity = row[2] != null ? row[2] : 0L;
-            Object totalRevenue = row[3] != null ? row[3] : BigDecimal.ZERO;
-            return Map.of(
-                    "menuItemId", menuItemId,
-                    "itemName", itemName,
-                    "totalQuantity", totalQuantity,
-                    "totalRevenue", totalRevenue
-            );
-        }).collect(Collectors.toList());
+        LocalDateTime rollupStart = SalesRollupService.rollupStart(startDate, endDate);
+        LocalDateTime rollupEnd = SalesRollupService.rollupEnd(startDate, endDate);
+
+        Map<Object, ProductTotals> totals = new HashMap<>();
+        if (rollupStart.isBefore(rollupEnd)) {
+            productRollupRepository.getProductSales(tenantId, rollupStart, rollupEnd)
+                    .forEach(row -> addProductRow(totals, row));
+        }
+        orderItemRepository.getProductSalesInEdges(tenantId, Bill.PaymentStatus.PAID,
+                        startDate, rollupStart, rollupEnd, endDate)
+                .forEach(row -> addProductRow(totals, row));
+
+        return totals.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<Object, ProductTotals> e) -> e.getValue().revenue).reversed())
+                .map(e -> Map.<String, Object>of(
+                        "menuItemId", e.getKey(),
+                        "itemName", e.getValue().itemName,
+                        "totalQuantity", e.getValue().quantity,
+                        "totalRevenue", e.getValue().revenue
+                ))
+                .collect(Collectors.toList());
     }
 
     public List<Map<String, Object>> getDayWiseSales(LocalDateTime startDate, LocalDateTime endDate) {
         UUID tenantId = TenantContext.getTenantId();
-        List<Object[]> results = billRepository.getDailySales(tenantId, startDate, endDate);
-
-        return results.stream().map(row -> {
-            Object date = row[0];
-            Object totalSales = row[1] != null ? row[1] : BigDecimal.ZERO;
-            return Map.of(
-                    "date", date,
-                    "totalSales", totalSales
-            );
-        }).collect(Collectors.toList());
+        LocalDateTime rollupStart = SalesRollupService.rollupStart(startDate, endDate);
+        LocalDateTime rollupEnd = SalesRollupService.rollupEnd(startDate, endDate);
+
+        Map<LocalDate, BigDecimal> totals = new TreeMap<>();
+        if (rollupStart.isBefore(rollupEnd)) {
+            salesRollupRepository.findBuckets(tenantId, rollupStart, rollupEnd)
+                    .forEach(row -> addSalesRow(totals, row));
+        }
+        billRepository.findSalesInEdges(tenantId, Bill.PaymentStatus.PAID,
+                        startDate, rollupStart, rollupEnd, endDate)
+                .forEach(row -> addSalesRow(totals, row));
+
+        return totals.entrySet().stream()
+                .map(e -> Map.<String, Object>of(
+                        "date", e.getKey(),
+                        "totalSales", e.getValue()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Object> backfillRollups(LocalDateTime startDate, LocalDateTime endDate) {
+        return salesRollupService.backfill(TenantContext.getTenantId(), startDate, endDate);
+    }
+
+    private void addSalesRow(Map<LocalDate, BigDecimal> totals, Object[] row) {
+        LocalDate date = ((LocalDateTime) row[0]).toLocalDate();
+        BigDecimal amount = row[1] != null ? (BigDecimal) row[1] : BigDecimal.ZERO;
+        totals.merge(date, amount, BigDecimal::add);
+    }
+
+    private void addProductRow(Map<Object, ProductTotals> totals, Object[] row) {
+        ProductTotals product = totals.computeIfAbsent(row[0], id -> new ProductTotals());
+        product.itemName = (String) row[1];
+        product.quantity += row[2] != null ? ((Number) row[2]).longValue() : 0L;
+        product.revenue = product.revenue.add(row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO);
+    }
+
+    private static class ProductTotals {
+        private String itemName;
+        private long quantity;
+        private BigDecimal revenue = BigDecimal.ZERO;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.entity.Bill;
+import com.restaurant.billing.exception.BadRequestException;
+import com.restaurant.billing.repository.BillRepository;
+import com.restaurant.billing.repository.ProductSalesHourlyRollupRepository;
+import com.restaurant.billing.repository.SalesHourlyRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains the hourly sales and product sales rollups. Bills are added once, in the
+ * transaction that makes them PAID, and taken out again in the one that refunds them;
+ * the bill rows must already be flushed because the rollups are computed from them in
+ * SQL. Bills paid before the rollups existed are folded in once, at the first startup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+
+    private static final String HISTORY_BACKFILL_TASK = "sales-rollup-history";
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+
+    private final SalesHourlyRollupRepository salesRollupRepository;
+    private final ProductSalesHourlyRollupRepository productRollupRepository;
+    private final BillRepository billRepository;
+    private final MaintenanceTaskService maintenanceTaskService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.reports.rollup-history-backfill:true}")
+    private boolean historyBackfillEnabled;
+
+    public void recordPaidBills(Collection<UUID> billIds) {
+        if (billIds.isEmpty()) {
+            return;
+        }
+        salesRollupRepository.addPaidBills(billIds);
+        productRollupRepository.addPaidBills(billIds);
+    }
+
+    public void recordRefundedBills(Collection<UUID> billIds) {
+        if (billIds.isEmpty()) {
+            return;
+        }
+        salesRollupRepository.subtractBills(billIds);
+        productRollupRepository.subtractBills(billIds);
+    }
+
+    /**
+     * Rebuilds each tenant's rollups from its first paid bill up to now, in month-sized
+     * transactions. Runs once per database; rebuilding is idempotent, so a run cut
+     * short is simply repeated at the next startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillHistory() {
+        if (!historyBackfillEnabled) {
+            return;
+        }
+        try {
+            maintenanceTaskService.runOnce(HISTORY_BACKFILL_TASK, () -> {
+                LocalDateTime end = LocalDateTime.now();
+                for (Object[] row : billRepository.findEarliestBillPerTenant(Bill.PaymentStatus.PAID)) {
+                    UUID tenantId = (UUID) row[0];
+                    LocalDateTime from = floorHour((LocalDateTime) row[1]);
+                    while (from.isBefore(end)) {
+                        LocalDateTime chunkStart = from;
+                        LocalDateTime chunkEnd = from.plusDays(BACKFILL_CHUNK_DAYS).isBefore(end)
+                                ? from.plusDays(BACKFILL_CHUNK_DAYS) : end;
+                        transactionTemplate.executeWithoutResult(status -> backfill(tenantId, chunkStart, chunkEnd));
+                        from = chunkEnd;
+                    }
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to backfill sales rollup history", e);
+        }
+    }
+
+    /**
+     * Rebuilds every hour touched by the given range from the raw bills and order items.
+     */
+    @Transactional
+    public Map<String, Object> backfill(UUID tenantId, LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null || endDate == null || !startDate.isBefore(endDate)) {
+            throw new BadRequestException("startDate must be before endDate");
+        }
+        LocalDateTime from = floorHour(startDate);
+        LocalDateTime to = ceilHour(endDate);
+
+        salesRollupRepository.deleteRange(tenantId, from, to);
+        productRollupRepository.deleteRange(tenantId, from, to);
+        int hours = salesRollupRepository.rebuildRange(tenantId, from, to);
+        int productRows = productRollupRepository.rebuildRange(tenantId, from, to);
+
+        log.info("Rebuilt sales rollups for tenant {} from {} to {}: {} hours, {} product rows",
+                tenantId, from, to, hours, productRows);
+        return Map.of(
+                "from", from,
+                "to", to,
+                "hours", hours,
+                "productRows", productRows
+        );
+    }
+
+    /**
+     * First whole hour of [startDate, endDate] served from the rollups. Equals
+     * {@link #rollupEnd} when no whole hour fits, so the raw edges cover everything.
+     */
+    public static LocalDateTime rollupStart(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime start = ceilHour(startDate);
+        return start.isAfter(floorHour(endDate)) ? startDate : start;
+    }
+
+    public static LocalDateTime rollupEnd(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime end = floorHour(endDate);
+        return ceilHour(startDate).isAfter(end) ? startDate : end;
+    }
+
+    public static LocalDateTime floorHour(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    public static LocalDateTime ceilHour(LocalDateTime time) {
+        LocalDateTime floor = floorHour(time);
+        return floor.equals(time) ? floor : floor.plusHours(1);
+    }
+}
@@ -5,6 +5,7 @@ import com.razorpay.Order;
 import com.restaurant.billing.dto.subscription.*;
 import com.restaurant.billing.entity.*;
 import com.restaurant.billing.entity.Payment;
+import com.restaurant.billing.event.TenantDeactivatedEvent;
 import com.restaurant.billing.exception.BadRequestException;
 import com.restaurant.billing.exception.ResourceNotFoundException;
 import com.restaurant.billing.repository.*;
@@ -12,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,6 +31,8 @@ public class SubscriptionService {
     private final TenantRepository tenantRepository;
     private final PaymentRepository paymentRepository;
     private final FeatureService featureService;
+    private final EntitlementRegistry entitlementRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Value("${app.razorpay.key-id}")
@@ -122,6 +126,7 @@ public class SubscriptionService {
         tenant.setMaxStorageGb(50);
 
         tenantRepository.save(tenant);
+        entitlementRegistry.markChanged(tenantId);
 
         // Enable all premium features
         featureService.enableAllPremiumFeatures(tenantId);
@@ -142,6 +147,9 @@ public class SubscriptionService {
             tenant.setSubscriptionStatus(Tenant.SubscriptionStatus.EXPIRED);
             tenant.setIsActive(false);
             tenantRepository.save(tenant);
+            entitlementRegistry.markChanged(tenant.getId());
+            // Revoked once the expiry commits
+            eventPublisher.publishEvent(new TenantDeactivatedEvent(tenant.getId()));
 
             log.info("Trial expired for tenant: {}", tenant.getId());
         }
@@ -160,6 +168,8 @@ public class SubscriptionService {
                 tenant.setSubscriptionStatus(Tenant.SubscriptionStatus.EXPIRED);
                 tenant.setIsActive(false);
                 tenantRepository.save(tenant);
+                entitlementRegistry.markChanged(tenant.getId());
+                eventPublisher.publishEvent(new TenantDeactivatedEvent(tenant.getId()));
 
                 log.info("Subscription expired for tenant: {}", tenant.getId());
             }
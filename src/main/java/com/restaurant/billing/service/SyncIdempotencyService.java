@@ -0,0 +1,118 @@
+package com.restaurant.billing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.billing.dto.sync.ConflictDto;
+import com.restaurant.billing.dto.sync.SyncResultDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Deduplicates sync writes on client-generated idempotency keys. A key is claimed
+ * with an insert into {@code sync_idempotency_keys} inside the chunk's transaction;
+ * a concurrent retry of the same key blocks on the unique index until the first
+ * attempt commits, then reads back its result instead of applying the write again.
+ * A failed attempt rolls its claim back with it, leaving the key free for the retry.
+ * All methods must run inside the caller's transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SyncIdempotencyService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.sync.idempotency.retention-hours:72}")
+    private long retentionHours;
+
+    /**
+     * Claims {@code key} for this attempt, or returns the stored outcome of the attempt
+     * that already claimed it.
+     */
+    public Optional<StoredOutcome> claim(UUID tenantId, UUID key) {
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO sync_idempotency_keys (tenant_id, idempotency_key, created_at) " +
+                "VALUES (?, ?, ?) ON CONFLICT (tenant_id, idempotency_key) DO NOTHING",
+                tenantId, key, LocalDateTime.now());
+        if (inserted == 1) {
+            return Optional.empty();
+        }
+        List<StoredOutcome> stored = jdbcTemplate.query(
+                "SELECT entity_id, server_version, status, conflict FROM sync_idempotency_keys " +
+                "WHERE tenant_id = ? AND idempotency_key = ?",
+                (rs, rowNum) -> new StoredOutcome(
+                        SyncResultDto.builder()
+                                .entityId(rs.getObject("entity_id", UUID.class))
+                                .serverVersion(rs.getObject("server_version", Long.class))
+                                .status(rs.getString("status"))
+                                .build(),
+                        readConflict(rs.getString("conflict"))),
+                tenantId, key);
+        if (stored.isEmpty()) {
+            // Pruned between the insert and the read; nothing to replay
+            throw new IllegalStateException("Idempotency key " + key + " is no longer available");
+        }
+        return Optional.of(stored.get(0));
+    }
+
+    /**
+     * Stores the outcome of the attempt holding {@code key}; {@code conflict} may be null.
+     */
+    public void complete(UUID tenantId, UUID key, SyncResultDto result, ConflictDto conflict) {
+        jdbcTemplate.update(
+                "UPDATE sync_idempotency_keys SET entity_id = ?, server_version = ?, status = ?, " +
+                "conflict = CAST(? AS jsonb) WHERE tenant_id = ? AND idempotency_key = ?",
+                result.getEntityId(), result.getServerVersion(), result.getStatus(), writeConflict(conflict),
+                tenantId, key);
+    }
+
+    @Scheduled(cron = "${app.sync.idempotency.prune-cron:0 15 4 * * ?}")
+    public void pruneExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM sync_idempotency_keys WHERE created_at < ?",
+                LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            log.info("Pruned {} expired sync idempotency keys", deleted);
+        }
+    }
+
+    private String writeConflict(ConflictDto conflict) {
+        if (conflict == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(conflict);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize sync conflict for " + conflict.getEntityId(), e);
+        }
+    }
+
+    private ConflictDto readConflict(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, ConflictDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored sync conflict", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StoredOutcome {
+        private final SyncResultDto result;
+        private final ConflictDto conflict;
+    }
+}
@@ -0,0 +1,149 @@
+package com.restaurant.billing.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Keeps {@code sync_logs} range-partitioned by month on {@code created_at}. Partitions
+ * are created a few months ahead and whole months past the retention window are
+ * dropped, so pruning never runs a DELETE. A plain table left by schema auto-update
+ * is converted in place during startup, before the node accepts requests, keeping
+ * only rows inside the retention window; nodes starting together take an advisory
+ * lock so only one of them converts it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SyncLogPartitionManager implements SmartInitializingSingleton {
+
+    private static final String TABLE = "sync_logs";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'uuuu'm'MM");
+    private static final String CONVERSION_LOCK = "sync_logs_partitioning";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.sync.log.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    @Value("${app.sync.log.retention-months:6}")
+    private int retentionMonths;
+
+    /**
+     * Runs once every singleton, including the JPA schema update, is ready, but before
+     * the web server starts, so no request can write into the table being converted.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> convertIfUnpartitioned());
+        } catch (Exception e) {
+            log.error("Failed to convert {} to a partitioned table", TABLE, e);
+            return;
+        }
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.sync.log.maintenance-cron:0 30 3 * * ?}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            try {
+                createPartition(current.plusMonths(i));
+            } catch (Exception e) {
+                log.error("Failed to create {} partition for {}", TABLE, current.plusMonths(i), e);
+            }
+        }
+        dropExpiredPartitions(current.minusMonths(retentionMonths));
+    }
+
+    private void convertIfUnpartitioned() {
+        // Held until commit; a node that waited here then sees the converted table and stops
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext(?))", CONVERSION_LOCK);
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT COALESCE((SELECT c.relkind::text FROM pg_class c " +
+                "WHERE c.oid = to_regclass(?)), '')", String.class, TABLE);
+        if (!"r".equals(kind)) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + TABLE + "_legacy");
+        jdbcTemplate.execute("UPDATE " + TABLE + "_legacy SET created_at = now() WHERE created_at IS NULL");
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + TABLE + "_legacy INCLUDING DEFAULTS, " +
+                "CONSTRAINT " + TABLE + "_partitioned_pkey PRIMARY KEY (id, created_at)) " +
+                "PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+        for (YearMonth month = cutoff; !month.isAfter(YearMonth.now()); month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+        int copied = jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT * FROM " + TABLE + "_legacy " +
+                "WHERE created_at >= ?", cutoff.atDay(1).atStartOfDay());
+        jdbcTemplate.execute("DROP TABLE " + TABLE + "_legacy");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_sync_logs_tenant_device_created " +
+                "ON " + TABLE + " (tenant_id, device_id, created_at)");
+        log.info("Converted {} to monthly partitions, kept {} rows since {}", TABLE, copied, cutoff);
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+                " PARTITION OF " + TABLE + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" +
+                month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private void dropExpiredPartitions(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                log.info("Dropped expired {} partition {}", TABLE, partition);
+            } catch (Exception e) {
+                log.error("Failed to drop {} partition {}", TABLE, partition, e);
+            }
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                Boolean.class, TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return TABLE + "_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private static YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(TABLE + "_y")) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(TABLE.length() + 1), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.restaurant.billing.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.billing.entity.SyncLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Appends sync log rows with JDBC batch inserts. {@code sync_logs} is write-mostly
+ * audit data, so rows skip the persistence context entirely.
+ */
+@Component
+@RequiredArgsConstructor
+public class SyncLogWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sync_logs (id, tenant_id, device_id, entity_type, entity_id, operation, status, " +
+            "payload, error_message, client_version, server_version, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.sync.log.batch-size:500}")
+    private int batchSize;
+
+    @Transactional
+    public void writeAll(List<SyncLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, batchSize, (ps, log) -> {
+            ps.setObject(1, log.getId() != null ? log.getId() : UUID.randomUUID());
+            ps.setObject(2, log.getTenantId());
+            ps.setString(3, log.getDeviceId());
+            ps.setString(4, log.getEntityType());
+            ps.setObject(5, log.getEntityId());
+            ps.setString(6, log.getOperation() != null ? log.getOperation().name() : null);
+            ps.setString(7, log.getStatus() != null ? log.getStatus().name() : null);
+            ps.setString(8, toJson(log));
+            ps.setString(9, log.getErrorMessage());
+            ps.setObject(10, log.getClientVersion(), Types.BIGINT);
+            ps.setObject(11, log.getServerVersion(), Types.BIGINT);
+            ps.setTimestamp(12, Timestamp.valueOf(log.getCreatedAt() != null ? log.getCreatedAt() : now));
+        });
+    }
+
+    private String toJson(SyncLog log) {
+        if (log.getPayload() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(log.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize sync log payload for " + log.getEntityId(), e);
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package com.restaurant.billing.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.billing.dto.menu.MenuItemDto;
+import com.restaurant.billing.dto.order.CreateOrderRequest;
 import com.restaurant.billing.dto.sync.*;
 import com.restaurant.billing.entity.*;
+import com.restaurant.billing.exception.BadRequestException;
+import com.restaurant.billing.exception.ResourceNotFoundException;
 import com.restaurant.billing.repository.*;
 import com.restaurant.billing.security.TenantContext;
+import com.restaurant.billing.util.CursorUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.EqualsAndHashCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -18,39 +32,55 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SyncService {
 
+    private static final int DEFAULT_DELTA_PAGE_SIZE = 200;
+    private static final int MAX_DELTA_PAGE_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final MenuItemRepository menuItemRepository;
-    private final SyncLogRepository syncLogRepository;
+    private final OrderService orderService;
+    private final MenuService menuService;
+    private final SyncIdempotencyService idempotencyService;
+    private final SyncLogWriter syncLogWriter;
+    private final ChangeSequenceRepository changeSequenceRepository;
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeFeedService changeFeedService;
+    private final ChangeNotifier changeNotifier;
+    private final OrderSyncMerger orderSyncMerger;
+    private final DashboardCounterService dashboardCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
 
-    @Transactional
-    public SyncResponse performSync(SyncRequest request) {
-        UUID tenantId = TenantContext.getTenantId();
-        List<SyncResultDto> results = new ArrayList<>();
-        List<ConflictDto> conflicts = new ArrayList<>();
+    @Value("${app.sync.chunk-size:200}")
+    private int chunkSize;
 
-        // Process each sync item
-        for (SyncItemDto item : request.getData()) {
-            try {
-                SyncResultDto result = processSyncItem(tenantId, item, request.getDeviceId());
-                results.add(result);
+    @Value("${app.sync.long-poll.max-wait-ms:30000}")
+    private long maxLongPollMs;
 
-                // Log sync
-                logSync(tenantId, request.getDeviceId(), item, SyncLog.SyncStatus.SUCCESS);
+    // Long polls waiting on the same page share one registration and one read per wake-up
+    private final Map<PollKey, PollGroup> pollGroups = new ConcurrentHashMap<>();
 
-            } catch (Exception e) {
-                log.error("Sync error for item: {}", item.getEntityId(), e);
+    private TransactionTemplate readOnlyTransaction;
 
-                ConflictDto conflict = ConflictDto.builder()
-                        .entityId(item.getEntityId())
-                        .entityType(item.getEntityType())
-                        .reason(e.getMessage())
-                        .build();
-                conflicts.add(conflict);
+    @PostConstruct
+    public void init() {
+        // Long-poll reads run on notifier threads, outside the @Transactional proxy
+        readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+    }
 
-                // Log failed sync
-                logSync(tenantId, request.getDeviceId(), item, SyncLog.SyncStatus.FAILED);
-            }
+    public SyncResponse performSync(SyncRequest request) {
+        UUID tenantId = TenantContext.getTenantId();
+        List<SyncItemDto> items = request.getData() != null ? request.getData() : List.of();
+        List<SyncResultDto> results = new ArrayList<>();
+        List<ConflictDto> conflicts = new ArrayList<>();
+        List<SyncLog> logs = new ArrayList<>(items.size());
+
+        // Each chunk commits on its own so row locks are held for one chunk at a time
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            syncChunk(tenantId, request.getDeviceId(), items.subList(from, Math.min(from + chunkSize, items.size())),
+                    results, conflicts, logs);
         }
+        flushSyncLogs(request.getDeviceId(), logs);
 
         return SyncResponse.builder()
                 .success(conflicts.isEmpty())
@@ -61,74 +91,341 @@ public class SyncService {
     }
 
     @Transactional(readOnly = true)
-    public DeltaSyncResponse getDeltaChanges(UUID tenantId, LocalDateTime lastSyncTime, String deviceId) {
-        List<ChangeDto> changes = new ArrayList<>();
-
-        // Get order changes
-        List<Order> orderChanges = orderRepository.findDeltaChanges(tenantId, lastSyncTime, deviceId);
-        changes.addAll(orderChanges.stream()
-                .map(order -> ChangeDto.builder()
-                        .entityType("ORDER")
-                        .entityId(order.getId())
-                        .operation(order.getIsDeleted() ? "DELETE" : "UPDATE")
-                        .timestamp(order.getUpdatedAt())
-                        .version(order.getVersion())
-                        .payload(convertOrderToMap(order))
-                        .build())
-                .collect(Collectors.toList()));
-
-        // Get menu item changes
-        List<MenuItem> menuChanges = menuItemRepository.findDeltaChanges(tenantId, lastSyncTime, deviceId);
-        changes.addAll(menuChanges.stream()
-                .map(item -> ChangeDto.builder()
-                        .entityType("MENU_ITEM")
-                        .entityId(item.getId())
-                        .operation(item.getIsDeleted() ? "DELETE" : "UPDATE")
-                        .timestamp(item.getUpdatedAt())
-                        .version(item.getVersion())
-                        .payload(convertMenuItemToMap(item))
+    public DeltaSyncResponse getDeltaChanges(UUID tenantId, String cursor, Integer limit,
+                                             LocalDateTime lastSyncTime, String deviceId) {
+        return readDelta(new PollKey(tenantId, resolveStartSeq(tenantId, cursor, lastSyncTime),
+                deviceId, pageSize(limit)));
+    }
+
+    private DeltaSyncResponse readDelta(PollKey key) {
+        UUID tenantId = key.tenantId;
+        long afterSeq = key.afterSeq;
+        int pageSize = key.pageSize;
+
+        List<ChangeDto> changes = changeLogRepository
+                .findChangesAfter(tenantId, afterSeq, key.deviceId, PageRequest.of(0, pageSize + 1))
+                .stream()
+                .map(entry -> ChangeDto.builder()
+                        .entityType(entry.getEntityType())
+                        .entityId(entry.getEntityId())
+                        .operation(entry.getOperation())
+                        .timestamp(entry.getCreatedAt())
+                        .version(entry.getVersion())
+                        .sequence(entry.getSeq())
+                        .payload(entry.getPayload())
                         .build())
-                .collect(Collectors.toList()));
+                .collect(Collectors.toList());
+
+        boolean hasMore = changes.size() > pageSize;
+        List<ChangeDto> page = hasMore ? new ArrayList<>(changes.subList(0, pageSize)) : changes;
+        long lastSeq = page.isEmpty() ? afterSeq : page.get(page.size() - 1).getSequence();
 
         return DeltaSyncResponse.builder()
-                .changes(changes)
+                .changes(page)
                 .timestamp(LocalDateTime.now())
-                .hasMore(false)
+                .hasMore(hasMore)
+                .nextCursor(CursorUtil.encode(lastSeq))
                 .build();
     }
 
-    private SyncResultDto processSyncItem(UUID tenantId, SyncItemDto item, String deviceId) {
+    /**
+     * Long-poll variant of {@link #getDeltaChanges}: answers as soon as there is at least
+     * one change after the cursor, or with an empty page when the wait expires. Wake-ups
+     * come from {@link ChangeNotifier}, which only sees commits made on this node; a change
+     * written through another node is picked up by the read at the end of the wait.
+     */
+    public DeferredResult<DeltaSyncResponse> awaitDeltaChanges(UUID tenantId, String cursor, Integer limit,
+                                                               LocalDateTime lastSyncTime, String deviceId,
+                                                               long waitMs) {
+        long timeout = Math.min(waitMs, maxLongPollMs);
+        DeferredResult<DeltaSyncResponse> result = new DeferredResult<>(Math.max(timeout, 1L));
+        // Resolved up front so requests for the same page share a key whichever way they name it
+        Long afterSeq = readOnlyTransaction.execute(status -> resolveStartSeq(tenantId, cursor, lastSyncTime));
+        PollKey key = new PollKey(tenantId, afterSeq, deviceId, pageSize(limit));
+        if (timeout <= 0) {
+            result.setResult(readOnlyTransaction.execute(status -> readDelta(key)));
+            return result;
+        }
+
+        // Join before the first read so a commit landing in between still wakes the request
+        PollGroup group = join(key, result);
+        result.onCompletion(() -> leave(key, group, result));
+        result.onTimeout(() -> {
+            try {
+                result.setResult(readOnlyTransaction.execute(status -> readDelta(key)));
+            } catch (Exception e) {
+                result.setErrorResult(e);
+            }
+        });
+
+        try {
+            DeltaSyncResponse response = readOnlyTransaction.execute(status -> readDelta(key));
+            if (!response.getChanges().isEmpty()) {
+                result.setResult(response);
+            }
+        } catch (Exception e) {
+            result.setErrorResult(e);
+        }
+        return result;
+    }
+
+    private PollGroup join(PollKey key, DeferredResult<DeltaSyncResponse> result) {
+        return pollGroups.compute(key, (k, group) -> {
+            if (group == null) {
+                PollGroup created = new PollGroup(k);
+                created.waiter = changeNotifier.register(k.tenantId, () -> poll(created));
+                group = created;
+            }
+            group.results.add(result);
+            return group;
+        });
+    }
+
+    private void leave(PollKey key, PollGroup group, DeferredResult<DeltaSyncResponse> result) {
+        pollGroups.computeIfPresent(key, (k, current) -> {
+            if (current != group) {
+                return current;
+            }
+            group.results.remove(result);
+            if (group.results.isEmpty()) {
+                changeNotifier.unregister(k.tenantId, group.waiter);
+                return null;
+            }
+            return group;
+        });
+    }
+
+    /**
+     * Reads the group's page once and answers every request still waiting on it.
+     */
+    private void poll(PollGroup group) {
+        if (group.results.isEmpty()) {
+            return;
+        }
+        try {
+            DeltaSyncResponse response = readOnlyTransaction.execute(status -> readDelta(group.key));
+            if (!response.getChanges().isEmpty()) {
+                group.results.forEach(result -> result.setResult(response));
+            }
+        } catch (Exception e) {
+            group.results.forEach(result -> result.setErrorResult(e));
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_DELTA_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_DELTA_PAGE_SIZE);
+    }
+
+    private long resolveStartSeq(UUID tenantId, String cursor, LocalDateTime lastSyncTime) {
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                return Long.parseLong(CursorUtil.decode(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+        if (lastSyncTime == null) {
+            return 0L;
+        }
+
+        // Clients that still send a timestamp start from the first change logged after it
+        Long first = changeLogRepository.findFirstSeqSince(tenantId, lastSyncTime);
+        return first != null ? first - 1 : latestSeq(tenantId);
+    }
+
+    private long latestSeq(UUID tenantId) {
+        return changeSequenceRepository.findById(tenantId)
+                .map(ChangeSequence::getLastSeq)
+                .orElse(0L);
+    }
+
+    /**
+     * Applies a chunk in one transaction. An item that fails rolls the whole attempt back,
+     * since a database error leaves neither the transaction nor the persistence context
+     * usable; it is reported as failed and the items that remain are applied again in a
+     * fresh transaction. Nothing is reported as applied until its transaction commits.
+     */
+    private void syncChunk(UUID tenantId, String deviceId, List<SyncItemDto> chunk,
+                           List<SyncResultDto> results, List<ConflictDto> conflicts, List<SyncLog> logs) {
+        List<SyncItemDto> remaining = new ArrayList<>(chunk);
+        while (!remaining.isEmpty()) {
+            ChunkAttempt attempt = new ChunkAttempt();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    processChunk(tenantId, deviceId, remaining, attempt);
+                    if (attempt.failedIndex >= 0) {
+                        status.setRollbackOnly();
+                    }
+                });
+            } catch (Exception e) {
+                log.error("Sync chunk of {} items failed for device: {}", remaining.size(), deviceId, e);
+                for (SyncItemDto item : remaining) {
+                    conflicts.add(ConflictDto.builder()
+                            .entityId(item.getEntityId())
+                            .entityType(item.getEntityType())
+                            .reason("Sync failed: " + e.getMessage())
+                            .build());
+                    logs.add(buildSyncLog(tenantId, deviceId, item, SyncLog.SyncStatus.FAILED));
+                }
+                return;
+            }
+
+            if (attempt.failedIndex < 0) {
+                results.addAll(attempt.results);
+                conflicts.addAll(attempt.conflicts);
+                logs.addAll(attempt.logs);
+                return;
+            }
+            // Its idempotency key was claimed in the rolled back transaction, so a retry applies it afresh
+            SyncItemDto failed = remaining.remove(attempt.failedIndex);
+            conflicts.add(ConflictDto.builder()
+                    .entityId(failed.getEntityId())
+                    .entityType(failed.getEntityType())
+                    .reason(attempt.failure.getMessage())
+                    .build());
+            logs.add(buildSyncLog(tenantId, deviceId, failed, SyncLog.SyncStatus.FAILED));
+        }
+    }
+
+    private void processChunk(UUID tenantId, String deviceId, List<SyncItemDto> chunk, ChunkAttempt attempt) {
+        List<SyncResultDto> chunkResults = attempt.results;
+        List<ConflictDto> chunkConflicts = attempt.conflicts;
+        // The pushing device already has these changes; its delta reads skip them
+        changeFeedService.recordWritesFrom(deviceId);
+        // Preload and lock every row the chunk touches in one query per type; concurrent pushes
+        // to the same rows queue behind this chunk, and version checks then run in memory
+        Map<UUID, Order> orders = preload(chunk, Order.CHANGE_ENTITY_TYPE,
+                ids -> orderRepository.lockAllByIdInAndTenantId(ids, tenantId), Order::getId);
+        Map<UUID, MenuItem> menuItems = preload(chunk, MenuItem.CHANGE_ENTITY_TYPE,
+                ids -> menuItemRepository.lockAllByIdInAndTenantId(ids, tenantId), MenuItem::getId);
+
+        Map<UUID, Order> updatedOrders = new LinkedHashMap<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            SyncItemDto item = chunk.get(i);
+            UUID key = item.getIdempotencyKey();
+            try {
+                Optional<SyncIdempotencyService.StoredOutcome> replayed = key != null
+                        ? idempotencyService.claim(tenantId, key)
+                        : Optional.empty();
+                if (replayed.isPresent()) {
+                    // A retry of a write that already committed: answer with the original outcome
+                    SyncResultDto original = replayed.get().getResult();
+                    original.setClientEntityId(item.getEntityId());
+                    chunkResults.add(original);
+                    if (replayed.get().getConflict() != null) {
+                        chunkConflicts.add(replayed.get().getConflict());
+                    }
+                    continue;
+                }
+
+                int conflictsBefore = chunkConflicts.size();
+                SyncResultDto result = processSyncItem(tenantId, deviceId, item, orders, menuItems,
+                        updatedOrders, chunkConflicts);
+                result.setClientEntityId(item.getEntityId());
+                if (key != null) {
+                    ConflictDto conflict = chunkConflicts.size() > conflictsBefore
+                            ? chunkConflicts.get(chunkConflicts.size() - 1)
+                            : null;
+                    idempotencyService.complete(tenantId, key, result, conflict);
+                }
+                chunkResults.add(result);
+                attempt.logs.add(buildSyncLog(tenantId, deviceId, item, SyncLog.SyncStatus.SUCCESS));
+            } catch (Exception e) {
+                log.error("Sync error for item: {}", item.getEntityId(), e);
+                attempt.failedIndex = i;
+                attempt.failure = e;
+                return;
+            }
+        }
+
+        // Written with JDBC batching (hibernate.jdbc.batch_size) when the chunk commits
+        orderRepository.saveAll(updatedOrders.values());
+    }
+
+    private <T> Map<UUID, T> preload(List<SyncItemDto> chunk, String entityType,
+                                     Function<Set<UUID>, List<T>> loader, Function<T, UUID> idOf) {
+        Set<UUID> ids = chunk.stream()
+                .filter(item -> entityType.equals(item.getEntityType()) && item.getEntityId() != null)
+                .filter(item -> !"CREATE".equals(item.getOperation()))
+                .map(SyncItemDto::getEntityId)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return loader.apply(ids).stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    private SyncResultDto processSyncItem(UUID tenantId, String deviceId, SyncItemDto item,
+                                          Map<UUID, Order> orders, Map<UUID, MenuItem> menuItems,
+                                          Map<UUID, Order> updatedOrders, List<ConflictDto> chunkConflicts) {
+        if (item.getEntityType() == null) {
+            throw new IllegalArgumentException("Entity type is required");
+        }
         switch (item.getEntityType()) {
             case "ORDER":
-                return processOrderSync(tenantId, item, deviceId);
+                return processOrderSync(tenantId, deviceId, item, orders.get(item.getEntityId()),
+                        updatedOrders, chunkConflicts);
             case "MENU_ITEM":
-                return processMenuItemSync(tenantId, item, deviceId);
+                return processMenuItemSync(tenantId, deviceId, item, menuItems.get(item.getEntityId()));
             default:
                 throw new IllegalArgumentException("Unknown entity type: " + item.getEntityType());
         }
     }
 
-    private SyncResultDto processOrderSync(UUID tenantId, SyncItemDto item, String deviceId) {
-        Order order = orderRepository.findById(item.getEntityId()).orElse(null);
+    private SyncResultDto processOrderSync(UUID tenantId, String deviceId, SyncItemDto item, Order order,
+                                           Map<UUID, Order> updatedOrders, List<ConflictDto> chunkConflicts) {
+        if ("CREATE".equals(item.getOperation())) {
+            CreateOrderRequest request = readPayload(item, CreateOrderRequest.class);
+            request.setDeviceId(deviceId);
+            Order created = orderService.placeOrder(tenantId, request);
 
-        if (order == null && item.getOperation().equals("CREATE")) {
-            // Create new order
-            // Implementation depends on payload structure
             return SyncResultDto.builder()
-                    .entityId(item.getEntityId())
+                    .entityId(created.getId())
                     .status("SUCCESS")
-                    .serverVersion(1L)
+                    .serverVersion(created.getVersion())
                     .build();
-        } else if (order != null && item.getOperation().equals("UPDATE")) {
-            // Check version conflict
-            if (item.getClientVersion() < order.getVersion()) {
-                throw new RuntimeException("Version conflict detected");
+        }
+        if (order == null) {
+            throw new ResourceNotFoundException("Order not found");
+        }
+        if ("UPDATE".equals(item.getOperation())) {
+            if (Boolean.TRUE.equals(order.getIsDeleted())) {
+                // Merging would revive the order's fields and count it as active again
+                throw new BadRequestException("Order has been deleted");
+            }
+            // Merge field by field; edits to fields the server has not touched apply as-is
+            OrderSyncMerger.MergeResult merge = orderSyncMerger.merge(order, item);
+            if (!merge.getChangedFields().isEmpty()) {
+                updatedOrders.put(order.getId(), order);
+                dashboardCounterService.recordOrderStatusChange(
+                        order.getTenantId(), merge.getPreviousStatus(), order.getOrderStatus());
+            }
+            if (merge.hasRejectedFields()) {
+                chunkConflicts.add(ConflictDto.builder()
+                        .entityId(order.getId())
+                        .entityType(item.getEntityType())
+                        .reason("Concurrent edits kept the server value for some fields")
+                        .serverVersion(order.getVersion())
+                        .fields(merge.getConflicts())
+                        .build());
             }
 
-            // Update order
-            order.setSyncedAt(LocalDateTime.now());
-            order.setVersion(order.getVersion() + 1);
-            orderRepository.save(order);
+            return SyncResultDto.builder()
+                    .entityId(order.getId())
+                    .status(merge.isConcurrent() ? "MERGED" : "SUCCESS")
+                    .serverVersion(order.getVersion())
+                    .build();
+        }
+        if ("DELETE".equals(item.getOperation())) {
+            if (!Boolean.TRUE.equals(order.getIsDeleted())) {
+                order.setIsDeleted(true);
+                order.setVersion(order.getVersion() + 1);
+                order.setSyncedAt(LocalDateTime.now());
+                updatedOrders.put(order.getId(), order);
+                // A deleted order no longer counts as active, whatever its status
+                dashboardCounterService.recordOrderStatusChange(order.getTenantId(), order.getOrderStatus(), null);
+            }
 
             return SyncResultDto.builder()
                     .entityId(order.getId())
@@ -137,49 +434,103 @@ public class SyncService {
                     .build();
         }
 
-        throw new RuntimeException("Invalid sync operation");
+        throw new IllegalArgumentException("Invalid sync operation: " + item.getOperation());
     }
 
-    private SyncResultDto processMenuItemSync(UUID tenantId, SyncItemDto item, String deviceId) {
-        // Similar to processOrderSync
+    private SyncResultDto processMenuItemSync(UUID tenantId, String deviceId, SyncItemDto item, MenuItem menuItem) {
+        if ("CREATE".equals(item.getOperation())) {
+            MenuItem created = menuService.saveNewMenuItem(tenantId, readPayload(item, MenuItemDto.class), deviceId);
+
+            return SyncResultDto.builder()
+                    .entityId(created.getId())
+                    .status("SUCCESS")
+                    .serverVersion(created.getVersion())
+                    .build();
+        }
+        if (menuItem == null) {
+            throw new ResourceNotFoundException("Menu item not found");
+        }
+        if ("UPDATE".equals(item.getOperation())) {
+            // Menu items are edited as a whole, so a stale base version is rejected
+            if (item.getClientVersion() == null || item.getClientVersion() < menuItem.getVersion()) {
+                throw new BadRequestException("Version conflict detected: server version is "
+                        + menuItem.getVersion());
+            }
+            menuService.saveMenuItemUpdate(menuItem, readPayload(item, MenuItemDto.class), deviceId);
+        } else if ("DELETE".equals(item.getOperation())) {
+            menuService.markMenuItemDeleted(menuItem, deviceId);
+        } else {
+            throw new IllegalArgumentException("Invalid sync operation: " + item.getOperation());
+        }
+
         return SyncResultDto.builder()
-                .entityId(item.getEntityId())
+                .entityId(menuItem.getId())
                 .status("SUCCESS")
-                .serverVersion(1L)
+                .serverVersion(menuItem.getVersion())
                 .build();
     }
 
-    private void logSync(UUID tenantId, String deviceId, SyncItemDto item, SyncLog.SyncStatus status) {
-        SyncLog log = SyncLog.builder()
+    private <T> T readPayload(SyncItemDto item, Class<T> type) {
+        if (item.getPayload() == null) {
+            throw new BadRequestException("Payload is required for " + item.getOperation());
+        }
+        try {
+            return objectMapper.convertValue(item.getPayload(), type);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid " + item.getEntityType() + " payload: " + e.getMessage());
+        }
+    }
+
+    private void flushSyncLogs(String deviceId, List<SyncLog> logs) {
+        // Logs are buffered for the whole sync call and appended in one batch after the chunks commit
+        try {
+            syncLogWriter.writeAll(logs);
+        } catch (Exception e) {
+            log.error("Failed to write {} sync logs for device: {}", logs.size(), deviceId, e);
+        }
+    }
+
+    private SyncLog buildSyncLog(UUID tenantId, String deviceId, SyncItemDto item, SyncLog.SyncStatus status) {
+        return SyncLog.builder()
                 .tenantId(tenantId)
                 .deviceId(deviceId)
                 .entityType(item.getEntityType())
                 .entityId(item.getEntityId())
-                .operation(SyncLog.SyncOperation.valueOf(item.getOperation()))
+                .operation(parseOperation(item.getOperation()))
                 .status(status)
                 .clientVersion(item.getClientVersion())
                 .build();
+    }
+
+    private SyncLog.SyncOperation parseOperation(String operation) {
+        try {
+            return operation != null ? SyncLog.SyncOperation.valueOf(operation) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        syncLogRepository.save(log);
+    private static final class ChunkAttempt {
+        private final List<SyncResultDto> results = new ArrayList<>();
+        private final List<ConflictDto> conflicts = new ArrayList<>();
+        private final List<SyncLog> logs = new ArrayList<>();
+        private int failedIndex = -1;
+        private Exception failure;
     }
 
-    private Map<String, Object> convertOrderToMap(Order order) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", order.getId());
-        map.put("orderNumber", order.getOrderNumber());
-        map.put("totalAmount", order.getTotalAmount());
-        map.put("status", order.getOrderStatus().name());
-        // Add other fields as needed
-        return map;
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class PollKey {
+        private final UUID tenantId;
+        private final long afterSeq;
+        private final String deviceId;
+        private final int pageSize;
     }
 
-    private Map<String, Object> convertMenuItemToMap(MenuItem item) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", item.getId());
-        map.put("name", item.getName());
-        map.put("price", item.getPrice());
-        map.put("isAvailable", item.getIsAvailable());
-        // Add other fields as needed
-        return map;
+    @RequiredArgsConstructor
+    private static final class PollGroup {
+        private final PollKey key;
+        private final Set<DeferredResult<DeltaSyncResponse>> results = ConcurrentHashMap.newKeySet();
+        private ChangeNotifier.Waiter waiter;
     }
 }
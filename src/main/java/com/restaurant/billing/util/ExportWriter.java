@@ -0,0 +1,133 @@
+package com.restaurant.billing.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.billing.exception.BadRequestException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes export rows one at a time straight to a response stream, as CSV or as
+ * newline-delimited JSON. Nothing is buffered beyond the underlying writer.
+ */
+public abstract class ExportWriter implements Flushable {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid export format: " + value);
+            }
+        }
+    }
+
+    protected final String[] columns;
+
+    protected ExportWriter(String[] columns) {
+        this.columns = columns;
+    }
+
+    public static ExportWriter create(Format format, OutputStream out, ObjectMapper objectMapper,
+                                      String... columns) throws IOException {
+        return format == Format.NDJSON
+                ? new NdjsonWriter(out, objectMapper, columns)
+                : new CsvWriter(out, columns);
+    }
+
+    public abstract void writeRow(Object... values) throws IOException;
+
+    private static class CsvWriter extends ExportWriter {
+
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out, String[] columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeLine(columns);
+        }
+
+        @Override
+        public void writeRow(Object... values) throws IOException {
+            writeLine(values);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        private String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0
+                    && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static class NdjsonWriter extends ExportWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(OutputStream out, ObjectMapper objectMapper, String[] columns) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeRow(Object... values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
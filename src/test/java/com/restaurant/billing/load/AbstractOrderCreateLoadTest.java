@@ -0,0 +1,147 @@
+package com.restaurant.billing.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.billing.entity.MenuItem;
+import com.restaurant.billing.security.JwtUtil;
+import com.restaurant.billing.service.EntitlementRegistry;
+import com.restaurant.billing.support.AbstractIntegrationTest;
+import com.restaurant.billing.support.TestData;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives {@code POST /api/orders} on a real server with many concurrent clients and
+ * reports throughput and latency. Subclasses fix the request thread model, so running
+ * both ({@code ./gradlew loadTest}) compares platform and virtual threads on the same
+ * data and database. Concurrency is set with {@code -Pload.users} and
+ * {@code -Pload.requests-per-user}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class AbstractOrderCreateLoadTest extends AbstractIntegrationTest {
+
+    private static final int WARMUP_REQUESTS_PER_USER = 5;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private EntitlementRegistry entitlementRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createOrdersUnderLoad() throws Exception {
+        int users = Integer.getInteger("load.users", 200);
+        int requestsPerUser = Integer.getInteger("load.requests-per-user", 25);
+
+        UUID tenantId = testData.tenant().getId();
+        List<MenuItem> menuItems = testData.menuItems(tenantId, 5);
+        String token = jwtUtil.generateAccessToken(UUID.randomUUID(), "load@example.com", tenantId, "OWNER",
+                entitlementRegistry.issue(tenantId));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(
+                        objectMapper.writeValueAsBytes(testData.orderRequest(menuItems, null))))
+                .build();
+
+        // Clients run on virtual threads so the load generator is never what runs out of threads
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .build();
+            run(http, clients, request, users, WARMUP_REQUESTS_PER_USER);
+            Result result = run(http, clients, request, users, requestsPerUser);
+
+            System.out.printf("order-create [%s threads] %d users x %d requests: %.0f req/s, "
+                            + "p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d failed%n",
+                    virtualThreads ? "virtual" : "platform", users, requestsPerUser, result.throughput(),
+                    result.percentileMs(50), result.percentileMs(99), result.percentileMs(100), result.failures);
+            assertEquals(0, result.failures, "order-create requests failed under load");
+        }
+    }
+
+    private Result run(HttpClient http, ExecutorService clients, HttpRequest request,
+                       int users, int requestsPerUser) throws Exception {
+        long[] latencies = new long[users * requestsPerUser];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<Future<?>> running = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) {
+            running.add(clients.submit(() -> {
+                for (int i = 0; i < requestsPerUser; i++) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 201) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> user : running) {
+            user.get();
+        }
+        return new Result(latencies, System.nanoTime() - start, failures.get());
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private final int failures;
+
+        private Result(long[] latencies, long elapsedNanos, int failures) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.failures = failures;
+            Arrays.sort(latencies);
+        }
+
+        private double throughput() {
+            return latencies.length / (elapsedNanos / 1e9);
+        }
+
+        private double percentileMs(int percentile) {
+            int index = Math.max(0, (int) Math.ceil(latencies.length * percentile / 100.0) - 1);
+            return latencies[index] / 1e6;
+        }
+    }
+}
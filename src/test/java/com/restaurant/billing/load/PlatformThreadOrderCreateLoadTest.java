@@ -0,0 +1,7 @@
+package com.restaurant.billing.load;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadOrderCreateLoadTest extends AbstractOrderCreateLoadTest {
+}
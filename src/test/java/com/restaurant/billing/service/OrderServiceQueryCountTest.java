@@ -0,0 +1,74 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.entity.MenuItem;
+import com.restaurant.billing.exception.ResourceNotFoundException;
+import com.restaurant.billing.security.TenantContext;
+import com.restaurant.billing.support.AbstractIntegrationTest;
+import com.restaurant.billing.support.SqlStatementCounter;
+import com.restaurant.billing.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Order creation must resolve all of its lines' menu items in one query, so the
+ * statements per order stay flat as the line count grows.
+ */
+class OrderServiceQueryCountTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    private UUID tenantId;
+    private List<MenuItem> menuItems;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = testData.tenant().getId();
+        menuItems = testData.menuItems(tenantId, 25);
+        TenantContext.setTenantId(tenantId);
+        // Reserves the day's first order number block, which is not part of the per-order cost
+        orderService.createOrder(testData.orderRequest(menuItems.subList(0, 1), null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithLineCount() {
+        List<String> single = SqlStatementCounter.record(
+                () -> orderService.createOrder(testData.orderRequest(menuItems.subList(0, 1), null)));
+
+        for (int lines : new int[] {5, 25}) {
+            List<String> statements = SqlStatementCounter.record(
+                    () -> orderService.createOrder(testData.orderRequest(menuItems.subList(0, lines), null)));
+
+            assertEquals(1, SqlStatementCounter.countTouching(statements, "menu_items"),
+                    "menu item lookups for " + lines + " lines: " + statements);
+            assertEquals(single.size(), statements.size(),
+                    "statements for " + lines + " lines: " + statements);
+        }
+    }
+
+    @Test
+    void otherTenantsItemsAreReportedAsNotFound() {
+        UUID otherTenantId = testData.tenant().getId();
+        List<MenuItem> foreignItems = testData.menuItems(otherTenantId, 1);
+
+        ResourceNotFoundException foreign = assertThrows(ResourceNotFoundException.class,
+                () -> orderService.createOrder(testData.orderRequest(foreignItems, null)));
+        assertEquals("Menu items not found: " + List.of(foreignItems.get(0).getId()), foreign.getMessage());
+    }
+}
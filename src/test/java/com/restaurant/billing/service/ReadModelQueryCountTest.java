@@ -0,0 +1,109 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.dto.billing.BillDto;
+import com.restaurant.billing.dto.order.OrderDto;
+import com.restaurant.billing.entity.Bill;
+import com.restaurant.billing.entity.OrderItem;
+import com.restaurant.billing.repository.BillRepository;
+import com.restaurant.billing.security.TenantContext;
+import com.restaurant.billing.support.AbstractIntegrationTest;
+import com.restaurant.billing.support.SqlStatementCounter;
+import com.restaurant.billing.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The order and bill read models must load their associations with the root row,
+ * in one statement, instead of one lazy select per association.
+ */
+class ReadModelQueryCountTest extends AbstractIntegrationTest {
+
+    private static final long BILL_TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private BillingService billingService;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private UUID tenantId;
+    private OrderDto order;
+    private BillDto bill;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        tenantId = testData.tenant().getId();
+        UUID tableId = testData.table(tenantId).getId();
+        TenantContext.setTenantId(tenantId);
+
+        order = orderService.createOrder(testData.orderRequest(testData.menuItems(tenantId, 3), tableId));
+        // The bill outbox creates the order's bill in the background; generating it here would race that
+        bill = billingService.getBillById(awaitBill(order.getId()).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    private Bill awaitBill(UUID orderId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(BILL_TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            Optional<Bill> created = billRepository.findByOrderId(orderId);
+            if (created.isPresent()) {
+                return created.get();
+            }
+            Thread.sleep(50);
+        }
+        return fail("No bill was created for order " + orderId + " within " + BILL_TIMEOUT_SECONDS + "s");
+    }
+
+    @Test
+    void orderWithTableAndItemsLoadsInOneStatement() {
+        SqlStatementCounter.Recording<OrderDto> recording =
+                SqlStatementCounter.record(() -> orderService.getOrderById(order.getId()));
+
+        assertEquals(1, recording.statements().size(), recording.statements().toString());
+        assertNotNull(recording.result().getTableName());
+        assertEquals(3, recording.result().getItems().size());
+    }
+
+    @Test
+    void billWithOrderLoadsInOneStatement() {
+        SqlStatementCounter.Recording<BillDto> recording =
+                SqlStatementCounter.record(() -> billingService.getBillById(bill.getId()));
+
+        assertEquals(1, recording.statements().size(), recording.statements().toString());
+        assertEquals(order.getOrderNumber(), recording.result().getOrderNumber());
+    }
+
+    @Test
+    void invoiceViewLoadsOrderTenantAndItemsInOneStatement() {
+        // Runs outside a transaction, as generateInvoicePdf does, so a missed association would fail to load
+        SqlStatementCounter.Recording<Bill> recording = SqlStatementCounter.record(
+                () -> billRepository.findInvoiceViewByIdAndTenantId(bill.getId(), tenantId).orElseThrow());
+
+        Bill invoice = recording.result();
+        List<OrderItem> items = invoice.getOrder().getItems();
+        assertEquals(1, recording.statements().size(), recording.statements().toString());
+        assertNotNull(invoice.getOrder().getTenant().getRestaurantName());
+        assertEquals(3, items.size());
+    }
+}
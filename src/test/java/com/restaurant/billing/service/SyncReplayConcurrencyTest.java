@@ -0,0 +1,214 @@
+package com.restaurant.billing.service;
+
+import com.restaurant.billing.dto.order.OrderDto;
+import com.restaurant.billing.dto.order.OrderItemDto;
+import com.restaurant.billing.dto.sync.ConflictDto;
+import com.restaurant.billing.dto.sync.SyncItemDto;
+import com.restaurant.billing.dto.sync.SyncRequest;
+import com.restaurant.billing.dto.sync.SyncResponse;
+import com.restaurant.billing.dto.sync.SyncResultDto;
+import com.restaurant.billing.entity.Order;
+import com.restaurant.billing.repository.OrderRepository;
+import com.restaurant.billing.security.TenantContext;
+import com.restaurant.billing.support.AbstractIntegrationTest;
+import com.restaurant.billing.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A device that times out and retries can deliver the same push several times at
+ * once. Exactly one attempt may apply it; every other one must answer with the same
+ * outcome, conflicts included, without touching the order again.
+ */
+class SyncReplayConcurrencyTest extends AbstractIntegrationTest {
+
+    private static final int ATTEMPTS = 8;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private UUID tenantId;
+    private OrderDto order;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = testData.tenant().getId();
+        TenantContext.setTenantId(tenantId);
+        order = orderService.createOrder(testData.orderRequest(testData.menuItems(tenantId, 2), null));
+        // Moved on the server after the device's base version, so the device's status edit conflicts
+        orderService.updateOrderStatus(order.getId(), Order.OrderStatus.CONFIRMED.name());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void concurrentRetriesApplyThePushOnce() throws Exception {
+        OrderItemDto line = order.getItems().get(0);
+        SyncRequest push = SyncRequest.builder()
+                .deviceId("pos-1")
+                .data(List.of(SyncItemDto.builder()
+                        .entityType(Order.CHANGE_ENTITY_TYPE)
+                        .entityId(order.getId())
+                        .operation("UPDATE")
+                        .idempotencyKey(UUID.randomUUID())
+                        .clientVersion(1L)
+                        .clientModifiedAt(LocalDateTime.now().minusMinutes(5))
+                        .payload(Map.of(
+                                Order.FIELD_NOTES, "No onions",
+                                Order.FIELD_STATUS, Order.OrderStatus.PENDING.name(),
+                                OrderSyncMerger.ITEM_QUANTITY_DELTAS, Map.of(line.getId().toString(), 1)))
+                        .build()))
+                .build();
+
+        List<SyncResponse> responses = pushConcurrently(push);
+
+        SyncResultDto first = responses.get(0).getResults().get(0);
+        for (SyncResponse response : responses) {
+            assertEquals(1, response.getResults().size());
+            SyncResultDto result = response.getResults().get(0);
+            assertEquals(first.getEntityId(), result.getEntityId());
+            assertEquals(first.getServerVersion(), result.getServerVersion());
+            assertEquals(first.getStatus(), result.getStatus());
+
+            assertEquals(1, response.getConflicts().size());
+            ConflictDto conflict = response.getConflicts().get(0);
+            assertEquals(1, conflict.getFields().size());
+            assertEquals(Order.FIELD_STATUS, conflict.getFields().get(0).getField());
+            assertEquals(OrderSyncMerger.SERVER_WINS, conflict.getFields().get(0).getResolution());
+        }
+
+        Order stored = orderRepository.findWithTableAndItemsByIdAndTenantId(order.getId(), tenantId).orElseThrow();
+        assertEquals(3L, stored.getVersion());
+        assertEquals(first.getServerVersion(), stored.getVersion());
+        assertEquals("No onions", stored.getNotes());
+        assertEquals(Order.OrderStatus.CONFIRMED, stored.getOrderStatus());
+        int quantity = stored.getItems().stream()
+                .filter(item -> item.getId().equals(line.getId()))
+                .findFirst()
+                .orElseThrow()
+                .getQuantity();
+        assertEquals(line.getQuantity() + 1, quantity);
+    }
+
+    @Test
+    void updateToDeletedOrderIsRejected() {
+        syncService.performSync(SyncRequest.builder()
+                .deviceId("pos-1")
+                .data(List.of(SyncItemDto.builder()
+                        .entityType(Order.CHANGE_ENTITY_TYPE)
+                        .entityId(order.getId())
+                        .operation("DELETE")
+                        .build()))
+                .build());
+
+        SyncResponse response = syncService.performSync(SyncRequest.builder()
+                .deviceId("pos-2")
+                .data(List.of(SyncItemDto.builder()
+                        .entityType(Order.CHANGE_ENTITY_TYPE)
+                        .entityId(order.getId())
+                        .operation("UPDATE")
+                        .clientVersion(3L)
+                        .payload(Map.of(Order.FIELD_NOTES, "Extra spicy"))
+                        .build()))
+                .build());
+
+        assertTrue(response.getResults().isEmpty());
+        assertEquals(1, response.getConflicts().size());
+        Order stored = orderRepository.findWithTableAndItemsByIdAndTenantId(order.getId(), tenantId).orElseThrow();
+        assertTrue(stored.getIsDeleted());
+        assertEquals(3L, stored.getVersion());
+    }
+
+    @Test
+    void failedItemLeavesTheRestOfTheChunkApplied() {
+        OrderDto other = orderService.createOrder(testData.orderRequest(testData.menuItems(tenantId, 1), null));
+
+        SyncResponse response = syncService.performSync(SyncRequest.builder()
+                .deviceId("pos-1")
+                .data(List.of(
+                        SyncItemDto.builder()
+                                .entityType(Order.CHANGE_ENTITY_TYPE)
+                                .entityId(other.getId())
+                                .operation("UPDATE")
+                                .idempotencyKey(UUID.randomUUID())
+                                .clientVersion(1L)
+                                .payload(Map.of(Order.FIELD_NOTES, "Window seat"))
+                                .build(),
+                        SyncItemDto.builder()
+                                .entityType(Order.CHANGE_ENTITY_TYPE)
+                                .entityId(order.getId())
+                                .operation("UPDATE")
+                                .clientVersion(2L)
+                                .payload(Map.of(
+                                        Order.FIELD_NOTES, "Half applied",
+                                        Order.FIELD_STATUS, "NOT_A_STATUS"))
+                                .build()))
+                .build());
+
+        assertEquals(1, response.getResults().size());
+        assertEquals(other.getId(), response.getResults().get(0).getEntityId());
+        assertEquals(1, response.getConflicts().size());
+        assertEquals(order.getId(), response.getConflicts().get(0).getEntityId());
+
+        Order applied = orderRepository.findWithTableAndItemsByIdAndTenantId(other.getId(), tenantId).orElseThrow();
+        assertEquals("Window seat", applied.getNotes());
+        Order rejected = orderRepository.findWithTableAndItemsByIdAndTenantId(order.getId(), tenantId).orElseThrow();
+        assertEquals(2L, rejected.getVersion());
+        assertTrue(rejected.getNotes() == null || !rejected.getNotes().equals("Half applied"));
+    }
+
+    private List<SyncResponse> pushConcurrently(SyncRequest push) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(ATTEMPTS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<SyncResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(pool.submit(() -> {
+                    TenantContext.setTenantId(tenantId);
+                    try {
+                        start.await();
+                        return syncService.performSync(push);
+                    } finally {
+                        TenantContext.clear();
+                    }
+                }));
+            }
+            start.countDown();
+            List<SyncResponse> responses = new ArrayList<>();
+            for (Future<SyncResponse> future : futures) {
+                responses.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
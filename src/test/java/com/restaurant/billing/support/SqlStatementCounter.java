@@ -0,0 +1,77 @@
+package com.restaurant.billing.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Records the SQL Hibernate prepares on the current thread. Unlike the session
+ * factory statistics, which are global, this ignores statements issued by the
+ * outbox processor, listeners on other threads and scheduled jobs while a test runs.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> recorded = RECORDED.get();
+        if (recorded != null) {
+            recorded.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Runs the action and returns every statement it prepared on this thread.
+     */
+    public static List<String> record(Runnable action) {
+        return record(() -> {
+            action.run();
+            return null;
+        }).statements();
+    }
+
+    public static <T> Recording<T> record(Supplier<T> action) {
+        List<String> recorded = new ArrayList<>();
+        RECORDED.set(recorded);
+        try {
+            T result = action.get();
+            return new Recording<>(result, recorded);
+        } finally {
+            RECORDED.remove();
+        }
+    }
+
+    /**
+     * Number of statements that reference the table, schema-qualified or not.
+     */
+    public static long countTouching(List<String> statements, String table) {
+        Pattern pattern = Pattern.compile("(^|[\\s.\"])" + Pattern.quote(table) + "([\\s\"]|$)",
+                Pattern.CASE_INSENSITIVE);
+        return statements.stream()
+                .filter(sql -> pattern.matcher(sql).find())
+                .count();
+    }
+
+    public static final class Recording<T> {
+        private final T result;
+        private final List<String> statements;
+
+        private Recording(T result, List<String> statements) {
+            this.result = result;
+            this.statements = statements;
+        }
+
+        public T result() {
+            return result;
+        }
+
+        public List<String> statements() {
+            return statements;
+        }
+    }
+}
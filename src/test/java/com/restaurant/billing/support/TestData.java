@@ -0,0 +1,97 @@
+package com.restaurant.billing.support;
+
+import com.restaurant.billing.dto.order.CreateOrderRequest;
+import com.restaurant.billing.dto.order.OrderItemRequest;
+import com.restaurant.billing.entity.MenuItem;
+import com.restaurant.billing.entity.RestaurantTable;
+import com.restaurant.billing.entity.Tenant;
+import com.restaurant.billing.repository.MenuItemRepository;
+import com.restaurant.billing.repository.RestaurantTableRepository;
+import com.restaurant.billing.repository.TenantRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the rows integration tests need, each under a fresh tenant so tests never
+ * see one another's data.
+ */
+@TestComponent
+public class TestData {
+
+    private final TenantRepository tenantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final RestaurantTableRepository tableRepository;
+
+    public TestData(TenantRepository tenantRepository, MenuItemRepository menuItemRepository,
+                    RestaurantTableRepository tableRepository) {
+        this.tenantRepository = tenantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.tableRepository = tableRepository;
+    }
+
+    public Tenant tenant() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return tenantRepository.save(Tenant.builder()
+                .restaurantName("Test Restaurant " + suffix)
+                .restaurantCode("TEST" + suffix.toUpperCase())
+                .ownerEmail("owner-" + suffix + "@example.com")
+                .ownerName("Test Owner")
+                .subscriptionPlan(Tenant.SubscriptionPlan.PRIME)
+                .subscriptionStatus(Tenant.SubscriptionStatus.ACTIVE)
+                .subscriptionEndDate(LocalDateTime.now().plusMonths(1))
+                .isActive(true)
+                .maxUsers(50)
+                .maxStorageGb(50)
+                .currency("INR")
+                .timezone("Asia/Kolkata")
+                .taxRate(BigDecimal.ZERO)
+                .serviceChargeRate(BigDecimal.ZERO)
+                .build());
+    }
+
+    public List<MenuItem> menuItems(UUID tenantId, int count) {
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(MenuItem.builder()
+                    .tenantId(tenantId)
+                    .name("Item " + i)
+                    .price(BigDecimal.valueOf(100 + i))
+                    .isAvailable(true)
+                    .isVeg(true)
+                    .isDeleted(false)
+                    .version(1L)
+                    .build());
+        }
+        return menuItemRepository.saveAll(items);
+    }
+
+    public RestaurantTable table(UUID tenantId) {
+        return tableRepository.save(RestaurantTable.builder()
+                .tenantId(tenantId)
+                .tableNumber("T1")
+                .seatingCapacity(4)
+                .status(RestaurantTable.TableStatus.AVAILABLE)
+                .isActive(true)
+                .build());
+    }
+
+    public CreateOrderRequest orderRequest(List<MenuItem> menuItems, UUID tableId) {
+        return CreateOrderRequest.builder()
+                .tableId(tableId)
+                .customerName("Test Customer")
+                .orderType(tableId != null ? "DINE_IN" : "TAKEAWAY")
+                .items(menuItems.stream()
+                        .map(item -> OrderItemRequest.builder()
+                                .menuItemId(item.getId())
+                                .quantity(2)
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}